@@ -24,11 +24,14 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public class DefaultExecutorFactory implements ExecutorFactory, Stoppable {
+    private static final long IO_THREAD_KEEP_ALIVE_SECONDS = 10;
+
     private final Set<ManagedExecutor> executors = new CopyOnWriteArraySet<ManagedExecutor>();
     @Nullable
     private final ClassLoader threadFactoryContextClassloader;
@@ -76,6 +79,26 @@ public ManagedThreadPoolExecutor createThreadPool(String displayName, int corePo
         return executor;
     }
 
+    @Override
+    public ManagedExecutor createIoExecutor(String displayName, int maxConcurrency) {
+        ExecutorService executorService = VirtualThreads.newThreadPerTaskExecutor(displayName, threadFactoryContextClassloader);
+        ManagedExecutor executor = executorService == null
+            ? new TrackedManagedExecutor(createIoThreadPoolExecutor(displayName, maxConcurrency), new ExecutorPolicy.CatchAndRecordFailures())
+            : new TrackedConcurrencyLimitingManagedExecutor(executorService, new ExecutorPolicy.CatchAndRecordFailures(), maxConcurrency);
+        executors.add(executor);
+        return executor;
+    }
+
+    /**
+     * Creates a pool of up to {@literal maxConcurrency} platform threads, for JVMs without virtual threads.
+     * Idle threads are released, so a burst of I/O does not keep the threads alive for the rest of the build.
+     */
+    private ThreadPoolExecutor createIoThreadPoolExecutor(String displayName, int maxConcurrency) {
+        ThreadPoolExecutor executor = createThreadPoolExecutor(maxConcurrency, maxConcurrency, IO_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, newThreadFactory(displayName));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     private static ThreadPoolExecutor createThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit timeUnit, ThreadFactory threadFactory) {
         return new ThreadPoolExecutor(
             corePoolSize,
@@ -120,6 +143,32 @@ public void stop(int timeoutValue, TimeUnit timeoutUnits) throws IllegalStateExc
         }
     }
 
+    /**
+     * Runs each action on a thread of its own, but at most a given number of them at the same time.
+     * Actions waiting for a permit block their own thread, which is cheap for virtual threads.
+     */
+    private class TrackedConcurrencyLimitingManagedExecutor extends TrackedManagedExecutor {
+        private final Semaphore permits;
+
+        TrackedConcurrencyLimitingManagedExecutor(ExecutorService executor, ExecutorPolicy executorPolicy, int maxConcurrency) {
+            super(executor, executorPolicy);
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        @Override
+        protected Runnable trackedCommand(Runnable command) {
+            Runnable trackedCommand = super.trackedCommand(command);
+            return () -> {
+                permits.acquireUninterruptibly();
+                try {
+                    trackedCommand.run();
+                } finally {
+                    permits.release();
+                }
+            };
+        }
+    }
+
     private class TrackedScheduledManagedExecutor extends ManagedScheduledExecutorImpl {
         TrackedScheduledManagedExecutor(ScheduledExecutorService executor, ExecutorPolicy executorPolicy) {
             super(executor, executorPolicy);
@@ -56,6 +56,20 @@ public interface ExecutorFactory {
      */
     ManagedThreadPoolExecutor createThreadPool(String displayName, int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit timeUnit);
 
+    /**
+     * Creates an executor for actions that spend most of their time waiting for I/O, such as network requests. It is the caller's responsibility to stop the executor.
+     *
+     * When the JVM supports virtual threads, each action runs on a virtual thread of its own, so that blocked actions do not tie up platform threads,
+     * and at most {@literal maxConcurrency} actions run at the same time. Otherwise, the executor runs the actions on a pool of up to {@literal maxConcurrency} platform threads, which are released when idle.
+     *
+     * The executor will collect failures thrown by actions and rethrow when the executor is stopped.
+     *
+     * @param displayName The display name for this executor. Used for thread names, logging and error message.
+     * @param maxConcurrency The maximum number of actions running at the same time
+     * @return The executor.
+     */
+    ManagedExecutor createIoExecutor(String displayName, int maxConcurrency);
+
     /**
      * Creates a scheduled executor which can run tasks periodically. It is the caller's responsibility to stop the executor.
      *
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.concurrent;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads, when the current JVM supports them.
+ *
+ * <p>Virtual threads are accessed reflectively, as Gradle is compiled against and runs on JVMs that do not provide them.</p>
+ */
+public class VirtualThreads {
+    @Nullable
+    private static final Method OF_VIRTUAL = lookupOfVirtual();
+
+    private VirtualThreads() {
+    }
+
+    @Nullable
+    private static Method lookupOfVirtual() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            // Fails when virtual threads are a preview feature that has not been enabled
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task, with the given name prefix and context classloader,
+     * or returns {@code null} when the JVM does not support virtual threads.
+     */
+    @Nullable
+    public static ExecutorService newThreadPerTaskExecutor(String displayName, @Nullable ClassLoader contextClassloader) {
+        ThreadFactory threadFactory = newThreadFactory(displayName, contextClassloader);
+        if (threadFactory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static ThreadFactory newThreadFactory(String displayName, @Nullable ClassLoader contextClassloader) {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, displayName + " Virtual Thread ", 1L);
+            ThreadFactory delegate = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return runnable -> delegate.newThread(() -> {
+                Thread.currentThread().setContextClassLoader(contextClassloader);
+                runnable.run();
+            });
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
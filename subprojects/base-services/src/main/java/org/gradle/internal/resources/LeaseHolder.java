@@ -17,13 +17,25 @@
 package org.gradle.internal.resources;
 
 public class LeaseHolder {
-    private final int maxWorkerCount;
+    private volatile int maxWorkerCount;
     private int leasesInUse;
 
     public LeaseHolder(int maxWorkerCount) {
         this.maxWorkerCount = maxWorkerCount;
     }
 
+    public int getMaxWorkerCount() {
+        return maxWorkerCount;
+    }
+
+    /**
+     * Changes the number of leases that can be granted. Leases that are currently granted are not revoked when the number is reduced,
+     * but no further leases are granted until enough of them have been released.
+     */
+    public void setMaxWorkerCount(int maxWorkerCount) {
+        this.maxWorkerCount = maxWorkerCount;
+    }
+
     public boolean grantLease() {
         if (leasesInUse >= maxWorkerCount) {
             return false;
@@ -77,6 +77,24 @@ public int getMaxWorkerCount() {
         return maxWorkerCount;
     }
 
+    /**
+     * Returns the number of worker leases that can currently be granted. This is at most {@link #getMaxWorkerCount()}.
+     */
+    public int getWorkerLeaseLimit() {
+        return workerLeaseLockRegistry.root.getMaxWorkerCount();
+    }
+
+    /**
+     * Changes the number of worker leases that can be granted, to a value between 1 and {@link #getMaxWorkerCount()}.
+     * Leases that are currently held are not revoked when the limit is reduced.
+     */
+    public void setWorkerLeaseLimit(int limit) {
+        int newLimit = Math.max(1, Math.min(maxWorkerCount, limit));
+        coordinationService.withStateLock(() -> workerLeaseLockRegistry.root.setMaxWorkerCount(newLimit));
+        // Wake up any threads waiting for a lease
+        coordinationService.notifyStateChange();
+    }
+
     @Override
     public WorkerLease getCurrentWorkerLease() {
         List<? extends WorkerLease> operations = workerLeaseLockRegistry.getResourceLocksByCurrentThread();
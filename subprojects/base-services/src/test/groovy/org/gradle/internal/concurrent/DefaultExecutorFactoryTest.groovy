@@ -20,6 +20,7 @@ import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import java.util.concurrent.Callable
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 class DefaultExecutorFactoryTest extends ConcurrentSpec {
 
@@ -436,4 +437,51 @@ class DefaultExecutorFactoryTest extends ConcurrentSpec {
         def ex = thrown(RuntimeException)
         ex.is(failure1)
     }
+
+    def ioExecutorRunsActionsOnVirtualThreadsWhenSupported() {
+        given:
+        def threads = [].asSynchronized()
+        def action = {
+            threads << Thread.currentThread()
+        }
+
+        when:
+        def executor = factory.createIoExecutor('test', 2)
+        executor.execute(action)
+        executor.execute(action)
+        executor.stop()
+
+        then:
+        threads.size() == 2
+        threads.every { it.name.startsWith('test') }
+        threads.every { isVirtual(it) } == VirtualThreads.isSupported()
+    }
+
+    def ioExecutorLimitsTheNumberOfConcurrentActions() {
+        given:
+        def active = new AtomicInteger()
+        def maxActive = new AtomicInteger()
+        def action = {
+            def current = active.incrementAndGet()
+            maxActive.accumulateAndGet(current) { a, b -> Math.max(a, b) }
+            Thread.sleep(20)
+            active.decrementAndGet()
+        }
+
+        when:
+        def executor = factory.createIoExecutor('test', 2)
+        10.times { executor.execute(action) }
+        executor.stop()
+
+        then:
+        maxActive.get() <= 2
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return Thread.getMethod("isVirtual").invoke(thread)
+        } catch (NoSuchMethodException e) {
+            return false
+        }
+    }
 }
@@ -472,4 +472,79 @@ class DefaultWorkerLeaseServiceWorkerLeaseTest extends AbstractWorkerLeaseServic
         then:
         noExceptionThrown()
     }
+
+    def "worker start blocks when the lease limit has been reduced"() {
+        def registry = workerLeaseService(2)
+
+        when:
+        registry.workerLeaseLimit = 1
+        async {
+            start {
+                def cl = registry.startWorker()
+                instant.worker1
+                thread.block()
+                instant.worker1Finished
+                cl.leaseFinish()
+            }
+            start {
+                thread.blockUntil.worker1
+                def cl = registry.startWorker()
+                instant.worker2
+                cl.leaseFinish()
+            }
+        }
+
+        then:
+        instant.worker2 > instant.worker1Finished
+
+        cleanup:
+        registry?.stop()
+    }
+
+    def "worker start proceeds when the lease limit is raised"() {
+        def registry = workerLeaseService(2)
+        registry.workerLeaseLimit = 1
+
+        when:
+        async {
+            start {
+                def cl = registry.startWorker()
+                instant.worker1
+                thread.blockUntil.worker2
+                cl.leaseFinish()
+            }
+            start {
+                thread.blockUntil.worker1
+                registry.workerLeaseLimit = 2
+                def cl = registry.startWorker()
+                instant.worker2
+                cl.leaseFinish()
+            }
+        }
+
+        then:
+        noExceptionThrown()
+
+        cleanup:
+        registry?.stop()
+    }
+
+    def "lease limit is kept between 1 and the maximum worker count"() {
+        def registry = workerLeaseService(4)
+
+        when:
+        registry.workerLeaseLimit = 0
+
+        then:
+        registry.workerLeaseLimit == 1
+
+        when:
+        registry.workerLeaseLimit = 12
+
+        then:
+        registry.workerLeaseLimit == 4
+
+        cleanup:
+        registry?.stop()
+    }
 }
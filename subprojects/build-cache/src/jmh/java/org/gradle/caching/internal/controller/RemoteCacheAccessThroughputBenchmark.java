@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.caching.internal.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how quickly a batch of entries can be loaded from a slow remote build cache, using the executor created for {@link DefaultNextGenBuildCacheAccess}.
+ *
+ * <p>The remote cache is simulated by a local HTTP server that adds a fixed latency to each request.
+ * Run on a JVM with virtual threads to compare the platform thread pool with the I/O thread pool.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RemoteCacheAccessThroughputBenchmark {
+    private static final byte[] ENTRY = new byte[16 * 1024];
+
+    @Param({"platform", "io"})
+    String threadPool;
+
+    @Param({"20"})
+    int latencyMillis;
+
+    @Param({"1000"})
+    int entries;
+
+    private DefaultExecutorFactory executorFactory;
+    private ManagedExecutor executor;
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, ENTRY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(ENTRY);
+            }
+        });
+        server.start();
+        url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), "/");
+
+        // Same configuration as DefaultNextGenBuildCacheAccess
+        executorFactory = new DefaultExecutorFactory();
+        executor = threadPool.equals("io")
+            ? executorFactory.createIoExecutor("Build cache access", 256)
+            : executorFactory.create("Build cache access", 256);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorFactory.stop();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void loadEntries(Blackhole blackhole) throws InterruptedException {
+        CountDownLatch remaining = new CountDownLatch(entries);
+        AtomicLong bytesRead = new AtomicLong();
+        for (int i = 0; i < entries; i++) {
+            executor.execute(() -> {
+                try {
+                    bytesRead.addAndGet(load());
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    remaining.countDown();
+                }
+            });
+        }
+        remaining.await();
+        blackhole.consume(bytesRead.get());
+    }
+
+    private long load() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        long count = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream input = connection.getInputStream()) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                count += read;
+            }
+        }
+        return count;
+    }
+}
@@ -22,7 +22,7 @@
 import org.gradle.caching.BuildCacheKey;
 import org.gradle.caching.internal.NextGenBuildCacheService;
 import org.gradle.internal.concurrent.ExecutorFactory;
-import org.gradle.internal.concurrent.ManagedThreadPoolExecutor;
+import org.gradle.internal.concurrent.ManagedExecutor;
 import org.gradle.internal.file.BufferProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +43,7 @@ public class DefaultNextGenBuildCacheAccess implements NextGenBuildCacheAccess {
     private final NextGenBuildCacheHandler local;
     private final NextGenBuildCacheHandler remote;
     private final BufferProvider bufferProvider;
-    private final ManagedThreadPoolExecutor remoteProcessor;
+    private final ManagedExecutor remoteProcessor;
     private final ConcurrencyCounter counter;
 
     public DefaultNextGenBuildCacheAccess(
@@ -56,8 +56,8 @@ public DefaultNextGenBuildCacheAccess(
         this.remote = remote;
         this.bufferProvider = bufferProvider;
         // TODO Configure this properly
-        this.remoteProcessor = executorFactory.createThreadPool("Build cache access", 256, 256, 10, TimeUnit.SECONDS);
-        this.counter = new ConcurrencyCounter(remoteProcessor);
+        this.remoteProcessor = executorFactory.createIoExecutor("Build cache access", 256);
+        this.counter = new ConcurrencyCounter();
     }
 
     @Override
@@ -108,7 +108,7 @@ public <T> void store(Map<BuildCacheKey, T> entries, StoreHandler<T> handler) {
     public void close() throws IOException {
         Closer closer = Closer.create();
         closer.register(() -> {
-            if (!remoteProcessor.getQueue().isEmpty() || remoteProcessor.getActiveCount() > 0) {
+            if (counter.hasPending()) {
                 LOGGER.warn("Waiting for remote cache uploads to finish");
             }
             try {
@@ -124,23 +124,33 @@ public void close() throws IOException {
     }
 
     private static class ConcurrencyCounter implements Closeable {
+        private final AtomicInteger pendingCount = new AtomicInteger(0);
+        private final AtomicInteger activeCount = new AtomicInteger(0);
         private final AtomicInteger maxQueueLength = new AtomicInteger(0);
         private final AtomicInteger maxActiveCount = new AtomicInteger(0);
 
-        private final ManagedThreadPoolExecutor processor;
-
-        public ConcurrencyCounter(ManagedThreadPoolExecutor processor) {
-            this.processor = processor;
-        }
-
+        /**
+         * Wraps an action which is about to be submitted to the processor.
+         */
         public Runnable wrap(Runnable delegate) {
+            pendingCount.incrementAndGet();
             return () -> {
-                maxQueueLength.updateAndGet(max -> Integer.max(max, processor.getQueue().size()));
-                maxActiveCount.updateAndGet(max -> Integer.max(max, processor.getActiveCount()));
-                delegate.run();
+                int active = activeCount.incrementAndGet();
+                try {
+                    maxQueueLength.updateAndGet(max -> Integer.max(max, pendingCount.get() - active));
+                    maxActiveCount.updateAndGet(max -> Integer.max(max, active));
+                    delegate.run();
+                } finally {
+                    activeCount.decrementAndGet();
+                    pendingCount.decrementAndGet();
+                }
             };
         }
 
+        public boolean hasPending() {
+            return pendingCount.get() > 0;
+        }
+
         @Override
         public void close() {
             LOGGER.warn("Max concurrency encountered while processing remote cache entries: {}, max queue length: {}",
@@ -77,7 +77,7 @@ class DefaultNestedBuildTest extends Specification {
 
     def "runs action and does not finish build"() {
         given:
-        services.add(new BuildModelParameters(false, false, false, false, false, false, false, LogLevel.DEBUG))
+        services.add(new BuildModelParameters(false, false, false, false, false, false, false, false, LogLevel.DEBUG))
         def build = build()
 
         when:
@@ -1,6 +1,7 @@
 plugins {
     id("gradlebuild.distribution.implementation-kotlin")
     id("gradlebuild.kotlin-dsl-sam-with-receiver")
+    id("gradlebuild.jmh")
 }
 
 description = "Configuration cache implementation"
@@ -33,6 +34,11 @@ kotlin.sourceSets.all {
     languageSettings.progressiveMode = true
 }
 
+kotlin.target.compilations.named("jmh") {
+    // The benchmarks exercise internal serialization types
+    associateWith(kotlin.target.compilations["main"])
+}
+
 tasks.withType<org.jetbrains.kotlin.gradle.tasks.KotlinCompile>().configureEach {
     compilerOptions {
         freeCompilerArgs.addAll(
@@ -44,6 +50,7 @@ tasks.withType<org.jetbrains.kotlin.gradle.tasks.KotlinCompile>().configureEach
 dependencies {
     implementation(project(":base-services"))
     implementation(project(":base-services-groovy"))
+    implementation(project(":build-cache"))
     implementation(project(":composite-builds"))
     implementation(project(":core"))
     implementation(project(":core-api"))
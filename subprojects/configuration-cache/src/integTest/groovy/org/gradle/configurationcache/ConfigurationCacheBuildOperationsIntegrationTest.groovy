@@ -536,13 +536,13 @@ class ConfigurationCacheBuildOperationsIntegrationTest extends AbstractConfigura
     }
 
     private void hasOperationsForLoad() {
-        operations.only(ConfigurationCacheLoadBuildOperationType)
+        assert operations.only(ConfigurationCacheLoadBuildOperationType).result.heapHighWaterMark > 0
         operations.none(ConfigurationCacheStoreBuildOperationType)
     }
 
     private void hasOperationsForStoreAndLoad() {
-        operations.only(ConfigurationCacheLoadBuildOperationType)
-        operations.only(ConfigurationCacheStoreBuildOperationType)
+        assert operations.only(ConfigurationCacheLoadBuildOperationType).result.heapHighWaterMark > 0
+        assert operations.only(ConfigurationCacheStoreBuildOperationType).result.heapHighWaterMark > 0
     }
 
     void withBuildSrc() {
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.api.services.BuildService
+import org.gradle.api.services.BuildServiceParameters
+
+class ConfigurationCacheParallelNestedBuildStateIntegrationTest extends AbstractConfigurationCacheIntegrationTest {
+
+    static final String PARALLEL_NESTED_BUILD_STATE = "-Dorg.gradle.configuration-cache.internal.parallel-nested-build-state=true"
+
+    static final List<String> INCLUDED_BUILDS = ["inc1", "inc2", "inc3"]
+
+    def setup() {
+        file("buildSrc/src/main/groovy/Greeting.groovy") << """
+            class Greeting {
+                static String message() { "hello from buildSrc" }
+            }
+        """
+        INCLUDED_BUILDS.each { name ->
+            settingsFile << """
+                includeBuild '$name'
+            """
+            file("$name/settings.gradle") << """
+                rootProject.name = '$name'
+            """
+            file("$name/build.gradle") << """
+                abstract class Counter implements ${BuildService.name}<${BuildServiceParameters.name}.None> {
+                    final java.util.concurrent.atomic.AtomicInteger count = new java.util.concurrent.atomic.AtomicInteger()
+                }
+
+                def counter = gradle.sharedServices.registerIfAbsent("counter", Counter) { }
+
+                tasks.register("produce") {
+                    usesService(counter)
+                    doLast {
+                        println "$name produced, counter = " + counter.get().count.incrementAndGet()
+                    }
+                }
+
+                tasks.register("broken") {
+                    inputs.property('p', project).optional(true)
+                    doLast { }
+                }
+            """
+        }
+        buildFile << """
+            def message = Greeting.message()
+            tasks.register("aggregate") {
+                ${INCLUDED_BUILDS.collect { "dependsOn gradle.includedBuild('$it').task(':produce')" }.join("\n")}
+                doLast {
+                    println "aggregate: " + message
+                }
+            }
+        """
+    }
+
+    def "stores and loads the state of included builds and buildSrc in parallel"() {
+        given:
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheRun "aggregate", PARALLEL_NESTED_BUILD_STATE
+
+        then:
+        configurationCache.assertStateStored()
+        assertAggregateRan()
+
+        when:
+        configurationCacheRun "aggregate", PARALLEL_NESTED_BUILD_STATE
+
+        then:
+        configurationCache.assertStateLoaded()
+        assertAggregateRan()
+    }
+
+    def "reports problems from the state of several included builds stored in parallel"() {
+        given:
+        def brokenTasks = INCLUDED_BUILDS.collect { ":$it:broken" }
+
+        when:
+        configurationCacheRunLenient(*brokenTasks, PARALLEL_NESTED_BUILD_STATE)
+
+        then:
+        postBuildOutputContains("Configuration cache entry stored with 6 problems.")
+        problems.assertResultHasProblems(result) {
+            brokenTasks.each { task ->
+                withProblem("Task `$task` of type `org.gradle.api.DefaultTask`: cannot serialize object of type 'org.gradle.api.internal.project.DefaultProject', a subtype of 'org.gradle.api.Project', as these are not supported with the configuration cache.")
+                withProblem("Task `$task` of type `org.gradle.api.DefaultTask`: cannot deserialize object of type 'org.gradle.api.Project' as these are not supported with the configuration cache.")
+            }
+            problemsWithStackTraceCount = 0
+        }
+
+        when:
+        configurationCacheRunLenient(*brokenTasks, PARALLEL_NESTED_BUILD_STATE)
+
+        then:
+        postBuildOutputContains("Configuration cache entry reused with 3 problems.")
+        problems.assertResultHasProblems(result) {
+            brokenTasks.each { task ->
+                withProblem("Task `$task` of type `org.gradle.api.DefaultTask`: cannot deserialize object of type 'org.gradle.api.Project' as these are not supported with the configuration cache.")
+            }
+            problemsWithStackTraceCount = 0
+        }
+    }
+
+    private void assertAggregateRan() {
+        INCLUDED_BUILDS.each { name ->
+            result.assertTaskExecuted(":$name:produce")
+            outputContains("$name produced, counter = 1")
+        }
+        result.assertTaskExecuted(":aggregate")
+        outputContains("aggregate: hello from buildSrc")
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.test.fixtures.file.TestFile
+
+class ConfigurationCacheSharedEntriesIntegrationTest extends AbstractConfigurationCacheIntegrationTest {
+    TestFile sharedEntriesDir
+
+    def setup() {
+        sharedEntriesDir = new TestFile(testDirectory, 'shared-entries')
+        buildFile """
+            tasks.register("greet") {
+                doLast { println("Hello") }
+            }
+        """
+    }
+
+    def "reuses shared entry when the local configuration cache is missing"() {
+        given:
+        def configurationCache = newConfigurationCacheFixture()
+        configurationCacheRun "greet", sharedEntriesArg()
+
+        expect:
+        configurationCache.assertStateStored()
+        sharedEntries().size() == 1
+
+        when:
+        file('.gradle/configuration-cache').deleteDir()
+        configurationCacheRun "greet", sharedEntriesArg()
+
+        then:
+        configurationCache.assertStateLoaded()
+        outputContains("Hello")
+    }
+
+    def "invalidates shared entry when a build input has changed"() {
+        given:
+        def configurationCache = newConfigurationCacheFixture()
+        configurationCacheRun "greet", sharedEntriesArg()
+        file('.gradle/configuration-cache').deleteDir()
+
+        when:
+        buildFile << """
+            println("changed")
+        """
+        configurationCacheRun "greet", sharedEntriesArg()
+
+        then:
+        configurationCache.assertStateStored()
+        outputContains("Calculating task graph as configuration cache cannot be reused because file 'build.gradle' has changed.")
+    }
+
+    def "does not share entries unless enabled"() {
+        given:
+        def configurationCache = newConfigurationCacheFixture()
+        configurationCacheRun "greet", sharedEntriesArg()
+        file('.gradle/configuration-cache').deleteDir()
+
+        when:
+        configurationCacheRun "greet"
+
+        then:
+        configurationCache.assertStateStored()
+    }
+
+    private List<File> sharedEntries() {
+        // The directory also holds the bookkeeping files of the build cache
+        sharedEntriesDir.listFiles().findAll { it.name ==~ /\p{XDigit}{32}/ }
+    }
+
+    private String sharedEntriesArg() {
+        "-Dorg.gradle.configuration-cache.internal.shared-entries-dir=${sharedEntriesDir}"
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.isolated
+
+import org.gradle.test.fixtures.server.http.BlockingHttpServer
+import org.junit.Rule
+
+class IsolatedProjectsParallelConfigurationIntegrationTest extends AbstractIsolatedProjectsIntegrationTest {
+    private static final String ENABLE_PARALLEL_CONFIGURATION = "-Dorg.gradle.internal.isolated-projects.parallel-configuration=true"
+
+    @Rule
+    BlockingHttpServer server = new BlockingHttpServer()
+
+    def setup() {
+        server.start()
+        settingsFile << """
+            include("a")
+            include("b")
+        """
+        file("build.gradle") << """
+            ${server.callFromBuild("configure-root")}
+        """
+        file("a/build.gradle") << """
+            ${server.callFromBuild("configure-a")}
+            tasks.register("thing")
+        """
+        file("b/build.gradle") << """
+            ${server.callFromBuild("configure-b")}
+            tasks.register("thing")
+        """
+    }
+
+    def "configures decoupled projects in parallel when enabled"() {
+        given:
+        server.expect("configure-root")
+        server.expectConcurrent("configure-a", "configure-b")
+
+        when:
+        configurationCacheRun(ENABLE_PARALLEL_CONFIGURATION, "--parallel", "--max-workers=3", "--info", "thing")
+
+        then:
+        fixture.assertStateStored {
+            projectsConfigured(":", ":a", ":b")
+        }
+        outputContains("Configured project :a in ")
+        outputContains("Configured project :b in ")
+
+        when:
+        configurationCacheRun(ENABLE_PARALLEL_CONFIGURATION, "--parallel", "--max-workers=3", "thing")
+
+        then:
+        fixture.assertStateLoaded()
+    }
+
+    def "configures projects one after the other when parallel execution is disabled"() {
+        given:
+        server.expect("configure-root")
+        server.expect("configure-a")
+        server.expect("configure-b")
+
+        when:
+        configurationCacheRun(ENABLE_PARALLEL_CONFIGURATION, "thing")
+
+        then:
+        fixture.assertStateStored {
+            projectsConfigured(":", ":a", ":b")
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import org.gradle.util.internal.SupportedEncryptionAlgorithm
+import org.openjdk.jmh.annotations.AuxCounters
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.concurrent.TimeUnit
+import javax.crypto.CipherInputStream
+import javax.crypto.CipherOutputStream
+import javax.crypto.KeyGenerator
+import javax.crypto.SecretKey
+
+
+/**
+ * Stores and loads a synthetic configuration cache state file with and without [BlockCompressingOutputStream],
+ * with and without encryption, mirroring how state files are written by [ConfigurationCacheIO].
+ *
+ * The size of the stored file is reported as the `storedBytes` secondary result.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class StateFileCompressionBenchmark {
+
+    @Param("false", "true")
+    var compressed: Boolean = false
+
+    @Param("false", "true")
+    var encrypted: Boolean = false
+
+    @Param("64")
+    var stateMegabytes: Int = 0
+
+    private
+    val encryptionAlgorithm = SupportedEncryptionAlgorithm.AES_ECB_PADDING
+
+    private
+    lateinit var secretKey: SecretKey
+
+    private
+    lateinit var state: ByteArray
+
+    private
+    lateinit var storeFile: File
+
+    private
+    lateinit var loadFile: File
+
+    @Setup
+    fun setUp() {
+        secretKey = KeyGenerator.getInstance(encryptionAlgorithm.algorithm).generateKey()
+        state = syntheticState(stateMegabytes * 1024 * 1024)
+        storeFile = File.createTempFile("store", ".bin")
+        loadFile = File.createTempFile("load", ".bin")
+        store(loadFile)
+    }
+
+    @TearDown
+    fun tearDown() {
+        storeFile.delete()
+        loadFile.delete()
+    }
+
+    @Benchmark
+    fun store(size: StoredSize) {
+        store(storeFile)
+        size.storedBytes = storeFile.length()
+    }
+
+    @Benchmark
+    fun load(): Long {
+        val buffer = ByteArray(8192)
+        var total = 0L
+        inputStreamFor(loadFile).use { input ->
+            while (true) {
+                val count = input.read(buffer)
+                if (count < 0) {
+                    break
+                }
+                total += count
+            }
+        }
+        return total
+    }
+
+    private
+    fun store(file: File) {
+        outputStreamFor(file).use { output ->
+            output.write(state)
+        }
+    }
+
+    private
+    fun outputStreamFor(file: File): OutputStream =
+        file.outputStream().buffered().let { fileOutput ->
+            if (encrypted) CipherOutputStream(fileOutput, encryptionAlgorithm.newSession(secretKey).encryptingCipher(fileOutput::write))
+            else fileOutput
+        }.let { output ->
+            if (compressed) BlockCompressingOutputStream(output) else output
+        }
+
+    private
+    fun inputStreamFor(file: File): InputStream =
+        file.inputStream().buffered().let { fileInput ->
+            if (encrypted) CipherInputStream(fileInput, encryptionAlgorithm.newSession(secretKey).decryptingCipher(fileInput::read))
+            else fileInput
+        }.let { input ->
+            if (compressed) BlockDecompressingInputStream(input) else input
+        }
+
+    /**
+     * Produces a Kryo stream resembling the state of a task graph, made of task paths, file paths and small numbers.
+     */
+    private
+    fun syntheticState(size: Int): ByteArray {
+        val outputStream = ByteArrayOutputStream(size)
+        KryoBackedEncoder(outputStream).use { encoder ->
+            var task = 0
+            while (encoder.writePosition < size) {
+                val project = "project${task / 20}"
+                encoder.writeString(":$project:compileJava$task")
+                encoder.writeString("org.gradle.api.tasks.compile.JavaCompile")
+                encoder.writeString("/home/user/build/$project/src/main/java")
+                encoder.writeString("/home/user/build/$project/build/classes/java/main")
+                encoder.writeSmallInt(task % 11)
+                encoder.writeLong(task * 31L)
+                encoder.writeBoolean(task % 2 == 0)
+                task += 1
+            }
+        }
+        return outputStream.toByteArray()
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    open class StoredSize {
+
+        var storedBytes: Long = 0
+
+        @Setup(Level.Iteration)
+        fun reset() {
+            storedBytes = 0
+        }
+    }
+}
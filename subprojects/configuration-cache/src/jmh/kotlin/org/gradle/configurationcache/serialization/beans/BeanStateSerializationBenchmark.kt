@@ -0,0 +1,246 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.serialization.beans
+
+import org.gradle.api.internal.tasks.properties.annotations.OutputPropertyRoleAnnotationHandler
+import org.gradle.api.invocation.Gradle
+import org.gradle.api.logging.Logging
+import org.gradle.cache.internal.DefaultCrossBuildInMemoryCacheFactory
+import org.gradle.configurationcache.extensions.uncheckedCast
+import org.gradle.configurationcache.extensions.useToRun
+import org.gradle.configurationcache.problems.ProblemsListener
+import org.gradle.configurationcache.problems.PropertyProblem
+import org.gradle.configurationcache.serialization.Codec
+import org.gradle.configurationcache.serialization.DefaultReadContext
+import org.gradle.configurationcache.serialization.DefaultWriteContext
+import org.gradle.configurationcache.serialization.IsolateOwner
+import org.gradle.configurationcache.serialization.ScopeLookup
+import org.gradle.configurationcache.serialization.codecs.BeanCodec
+import org.gradle.configurationcache.serialization.codecs.Bindings
+import org.gradle.configurationcache.serialization.codecs.arrayListCodec
+import org.gradle.configurationcache.serialization.reentrant
+import org.gradle.configurationcache.serialization.runReadOperation
+import org.gradle.configurationcache.serialization.runWriteOperation
+import org.gradle.configurationcache.serialization.withIsolate
+import org.gradle.internal.event.DefaultListenerManager
+import org.gradle.internal.instantiation.generator.DefaultInstantiatorFactory
+import org.gradle.internal.serialize.BaseSerializerFactory.BOOLEAN_SERIALIZER
+import org.gradle.internal.serialize.BaseSerializerFactory.FILE_SERIALIZER
+import org.gradle.internal.serialize.BaseSerializerFactory.INTEGER_SERIALIZER
+import org.gradle.internal.serialize.BaseSerializerFactory.LONG_SERIALIZER
+import org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import org.gradle.internal.service.scopes.Scopes
+import org.openjdk.jmh.annotations.AuxCounters
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.lang.reflect.Proxy
+import java.util.concurrent.TimeUnit
+
+
+/**
+ * Serializes and deserializes a synthetic task graph of plain beans through [BeanCodec], comparing the [FieldAccessStrategy] implementations.
+ *
+ * Each benchmark uses fresh contexts and bean state lookups, as for each configuration cache entry that is stored or loaded in a build tree.
+ * The size of the serialized graph is reported as the `serializedBytes` secondary result.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class BeanStateSerializationBenchmark {
+
+    @Param("FieldReflection", "MethodHandleLookup")
+    lateinit var fieldAccessStrategy: FieldAccessStrategy
+
+    @Param("10000")
+    var tasks: Int = 0
+
+    private
+    val codec: Codec<Any?> = Bindings.of {
+        bind(STRING_SERIALIZER)
+        bind(BOOLEAN_SERIALIZER)
+        bind(INTEGER_SERIALIZER)
+        bind(LONG_SERIALIZER)
+        bind(FILE_SERIALIZER)
+        bind(arrayListCodec)
+        bind(reentrant(BeanCodec))
+    }.build()
+
+    private
+    val cacheFactory = DefaultCrossBuildInMemoryCacheFactory(DefaultListenerManager(Scopes.BuildTree::class.java))
+
+    private
+    val instantiatorFactory = DefaultInstantiatorFactory(cacheFactory, emptyList(), OutputPropertyRoleAnnotationHandler(emptyList()))
+
+    private
+    val owner = IsolateOwner.OwnerGradle(
+        Proxy.newProxyInstance(Gradle::class.java.classLoader, arrayOf(Gradle::class.java)) { _, method, _ ->
+            throw UnsupportedOperationException(method.name)
+        }.uncheckedCast()
+    )
+
+    private
+    lateinit var graph: List<SyntheticTask>
+
+    private
+    lateinit var serializedGraph: ByteArray
+
+    @Setup
+    fun setUp() {
+        graph = syntheticTaskGraph(tasks)
+        serializedGraph = write(graph)
+    }
+
+    @Benchmark
+    fun serialize(size: SerializedSize): ByteArray =
+        write(graph).also {
+            size.serializedBytes = it.size.toLong()
+        }
+
+    @Benchmark
+    fun deserialize(): Any? =
+        read(serializedGraph)
+
+    private
+    fun write(value: Any): ByteArray {
+        val outputStream = ByteArrayOutputStream()
+        DefaultWriteContext(
+            codec = codec,
+            encoder = KryoBackedEncoder(outputStream),
+            scopeLookup = NoScopeLookup,
+            beanStateWriterLookup = BeanStateWriterLookup(fieldAccessStrategy),
+            logger = logger,
+            tracer = null,
+            problemsListener = FailingProblemsListener
+        ).useToRun {
+            withIsolate(owner, codec) {
+                runWriteOperation {
+                    write(value)
+                }
+            }
+        }
+        return outputStream.toByteArray()
+    }
+
+    private
+    fun read(bytes: ByteArray): Any? =
+        DefaultReadContext(
+            codec = codec,
+            decoder = KryoBackedDecoder(ByteArrayInputStream(bytes)),
+            beanStateReaderLookup = BeanStateReaderLookup(BeanConstructors(cacheFactory), instantiatorFactory, fieldAccessStrategy),
+            logger = logger,
+            problemsListener = FailingProblemsListener
+        ).useToRun {
+            initClassLoader(javaClass.classLoader)
+            withIsolate(owner, codec) {
+                runReadOperation {
+                    read()
+                }
+            }
+        }
+
+    private
+    fun syntheticTaskGraph(size: Int): List<SyntheticTask> {
+        val tasks = ArrayList<SyntheticTask>(size)
+        for (i in 0 until size) {
+            val project = "project${i / 20}"
+            val task = SyntheticTask(
+                path = ":$project:task$i",
+                enabled = i % 7 != 0,
+                timeout = i * 1000L,
+                inputs = SyntheticInputs(
+                    sourceDir = File("/$project/src/main/java"),
+                    includes = arrayListOf("**/*.java", "**/*.kt"),
+                    release = 8 + i % 10,
+                    incremental = i % 2 == 0
+                ),
+                outputDir = File("/$project/build/out/$i"),
+                dependencies = ArrayList((1..3).mapNotNull { offset -> tasks.getOrNull(i - offset) })
+            )
+            tasks.add(task)
+        }
+        return tasks
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    open class SerializedSize {
+
+        var serializedBytes: Long = 0
+
+        @Setup(Level.Iteration)
+        fun reset() {
+            serializedBytes = 0
+        }
+    }
+
+    private
+    object NoScopeLookup : ScopeLookup {
+        override fun scopeFor(classLoader: ClassLoader?) = null
+    }
+
+    private
+    object FailingProblemsListener : ProblemsListener {
+        override fun onProblem(problem: PropertyProblem) {
+            throw IllegalStateException(problem.message.toString())
+        }
+    }
+
+    private
+    companion object {
+        val logger = Logging.getLogger(BeanStateSerializationBenchmark::class.java)
+    }
+}
+
+
+@Suppress("unused")
+internal
+class SyntheticTask(
+    private var path: String,
+    private var enabled: Boolean,
+    private var timeout: Long,
+    private var inputs: SyntheticInputs,
+    private var outputDir: File,
+    private var dependencies: ArrayList<SyntheticTask>
+)
+
+
+@Suppress("unused")
+internal
+class SyntheticInputs(
+    private var sourceDir: File,
+    private var includes: ArrayList<String>,
+    private var release: Int,
+    private var incremental: Boolean
+)
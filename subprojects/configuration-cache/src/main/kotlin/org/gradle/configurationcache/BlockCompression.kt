@@ -0,0 +1,288 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.zip.DataFormatException
+import java.util.zip.Deflater
+import java.util.zip.Inflater
+
+
+/**
+ * Compresses a stream as a sequence of independently compressed blocks.
+ *
+ * Each block is written as its uncompressed length, its compressed length and the compressed bytes.
+ * The stream ends with an empty block, so a truncated stream can be told apart from a complete one.
+ * As each block carries its lengths, a reader can skip over whole blocks without decompressing them.
+ *
+ * Compression comes before encryption, as encrypted bytes do not compress.
+ */
+internal
+class BlockCompressingOutputStream(
+    outputStream: OutputStream,
+    blockSize: Int = DEFAULT_BLOCK_SIZE,
+    level: Int = Deflater.BEST_SPEED
+) : OutputStream() {
+
+    private
+    val output = DataOutputStream(outputStream)
+
+    private
+    val deflater = Deflater(level)
+
+    private
+    val block = ByteArray(blockSize)
+
+    private
+    var blockLength = 0
+
+    private
+    var compressed = ByteArray(blockSize + blockSize / 2)
+
+    private
+    var closed = false
+
+    override fun write(b: Int) {
+        if (blockLength == block.size) {
+            writeBlock()
+        }
+        block[blockLength++] = b.toByte()
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+        var offset = off
+        var remaining = len
+        while (remaining > 0) {
+            if (blockLength == block.size) {
+                writeBlock()
+            }
+            val count = minOf(remaining, block.size - blockLength)
+            System.arraycopy(b, offset, block, blockLength, count)
+            blockLength += count
+            offset += count
+            remaining -= count
+        }
+    }
+
+    /**
+     * Flushes the underlying stream only. Content of the current block is written when the block is full or the stream is closed,
+     * so that flushing does not cut the stream into small blocks that compress poorly.
+     */
+    override fun flush() {
+        output.flush()
+    }
+
+    override fun close() {
+        if (closed) {
+            return
+        }
+        closed = true
+        try {
+            writeBlock()
+            output.writeInt(0)
+            output.writeInt(0)
+            output.flush()
+        } finally {
+            deflater.end()
+            output.close()
+        }
+    }
+
+    private
+    fun writeBlock() {
+        if (blockLength == 0) {
+            return
+        }
+        deflater.reset()
+        deflater.setInput(block, 0, blockLength)
+        deflater.finish()
+        var compressedLength = 0
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.size) {
+                compressed = compressed.copyOf(compressed.size * 2)
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.size - compressedLength)
+        }
+        output.writeInt(blockLength)
+        output.writeInt(compressedLength)
+        output.write(compressed, 0, compressedLength)
+        blockLength = 0
+    }
+}
+
+
+/**
+ * Reads a stream written by [BlockCompressingOutputStream].
+ */
+internal
+class BlockDecompressingInputStream(
+    inputStream: InputStream
+) : InputStream() {
+
+    private
+    val input = DataInputStream(inputStream)
+
+    private
+    val inflater = Inflater()
+
+    private
+    var block = ByteArray(0)
+
+    private
+    var compressed = ByteArray(0)
+
+    private
+    var blockLength = 0
+
+    private
+    var position = 0
+
+    private
+    var endOfStream = false
+
+    override fun read(): Int {
+        if (!ensureAvailable()) {
+            return -1
+        }
+        return block[position++].toInt() and 0xff
+    }
+
+    override fun read(b: ByteArray, off: Int, len: Int): Int {
+        if (len == 0) {
+            return 0
+        }
+        if (!ensureAvailable()) {
+            return -1
+        }
+        val count = minOf(len, blockLength - position)
+        System.arraycopy(block, position, b, off, count)
+        position += count
+        return count
+    }
+
+    override fun available(): Int =
+        blockLength - position
+
+    /**
+     * Skips whole blocks without decompressing them, as long as [n] reaches past the end of the current block.
+     */
+    override fun skip(n: Long): Long {
+        var remaining = n
+        while (remaining > 0 && !endOfStream) {
+            if (position < blockLength) {
+                val count = minOf(remaining, (blockLength - position).toLong()).toInt()
+                position += count
+                remaining -= count
+                continue
+            }
+            val uncompressedLength = readBlockHeader() ?: break
+            val compressedLength = input.readInt()
+            if (remaining >= uncompressedLength) {
+                input.skipFully(compressedLength)
+                remaining -= uncompressedLength
+            } else {
+                readBlock(uncompressedLength, compressedLength)
+            }
+        }
+        return n - remaining
+    }
+
+    override fun close() {
+        inflater.end()
+        input.close()
+    }
+
+    private
+    fun ensureAvailable(): Boolean {
+        while (position == blockLength) {
+            if (endOfStream) {
+                return false
+            }
+            val uncompressedLength = readBlockHeader() ?: return false
+            readBlock(uncompressedLength, input.readInt())
+        }
+        return true
+    }
+
+    /**
+     * Returns the uncompressed length of the next block or `null` at the end of the stream.
+     */
+    private
+    fun readBlockHeader(): Int? {
+        val uncompressedLength = try {
+            input.readInt()
+        } catch (e: EOFException) {
+            throw IOException("Unexpected end of compressed stream.", e)
+        }
+        if (uncompressedLength == 0) {
+            input.readInt()
+            endOfStream = true
+            return null
+        }
+        return uncompressedLength
+    }
+
+    private
+    fun readBlock(uncompressedLength: Int, compressedLength: Int) {
+        if (compressed.size < compressedLength) {
+            compressed = ByteArray(compressedLength)
+        }
+        input.readFully(compressed, 0, compressedLength)
+        if (block.size < uncompressedLength) {
+            block = ByteArray(uncompressedLength)
+        }
+        inflater.reset()
+        inflater.setInput(compressed, 0, compressedLength)
+        var inflated = 0
+        while (inflated < uncompressedLength) {
+            val count = try {
+                inflater.inflate(block, inflated, uncompressedLength - inflated)
+            } catch (e: DataFormatException) {
+                throw IOException("Corrupted compressed block.", e)
+            }
+            if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                throw IOException("Corrupted compressed block.")
+            }
+            inflated += count
+        }
+        blockLength = uncompressedLength
+        position = 0
+    }
+
+    private
+    fun DataInputStream.skipFully(count: Int) {
+        var remaining = count
+        while (remaining > 0) {
+            val skipped = skipBytes(remaining)
+            if (skipped == 0) {
+                readByte()
+                remaining -= 1
+            } else {
+                remaining -= skipped
+            }
+        }
+    }
+}
+
+
+private
+const val DEFAULT_BLOCK_SIZE = 256 * 1024
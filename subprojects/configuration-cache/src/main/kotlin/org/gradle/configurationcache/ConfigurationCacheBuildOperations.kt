@@ -16,22 +16,44 @@
 
 package org.gradle.configurationcache
 
+import org.gradle.configurationcache.fingerprint.FingerprintCheckTimings
+import org.gradle.internal.configurationcache.ConfigurationCacheCheckFingerprintBuildOperationType
 import org.gradle.internal.configurationcache.ConfigurationCacheLoadBuildOperationType
 import org.gradle.internal.configurationcache.ConfigurationCacheStoreBuildOperationType
 import org.gradle.internal.operations.BuildOperationContext
 import org.gradle.internal.operations.BuildOperationDescriptor
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.CallableBuildOperation
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryPoolMXBean
+import java.lang.management.MemoryType
 
 
 internal
 fun <T : Any> BuildOperationExecutor.withLoadOperation(block: () -> T) =
-    withOperation("Load configuration cache state", block, LoadDetails, LoadResult)
+    withOperation("Load configuration cache state", block, LoadDetails, ::LoadResult)
 
 
 internal
 fun BuildOperationExecutor.withStoreOperation(@Suppress("UNUSED_PARAMETER") cacheKey: String, block: () -> Unit) =
-    withOperation("Store configuration cache state", block, StoreDetails, StoreResult)
+    withOperation("Store configuration cache state", block, StoreDetails, ::StoreResult)
+
+
+internal
+fun <T : Any> BuildOperationExecutor.withFingerprintCheckOperation(block: (FingerprintCheckTimings) -> T): T =
+    call(object : CallableBuildOperation<T> {
+        override fun description(): BuildOperationDescriptor.Builder =
+            BuildOperationDescriptor.displayName("Check configuration cache fingerprint").details(CheckFingerprintDetails)
+
+        override fun call(context: BuildOperationContext): T {
+            val timings = FingerprintCheckTimings()
+            try {
+                return block(timings)
+            } finally {
+                context.setResult(CheckFingerprintResult(timings.millisByCategory))
+            }
+        }
+    })
 
 
 private
@@ -39,7 +61,11 @@ object LoadDetails : ConfigurationCacheLoadBuildOperationType.Details
 
 
 private
-object LoadResult : ConfigurationCacheLoadBuildOperationType.Result
+class LoadResult(
+    private val heapHighWaterMark: Long
+) : ConfigurationCacheLoadBuildOperationType.Result {
+    override fun getHeapHighWaterMark(): Long = heapHighWaterMark
+}
 
 
 private
@@ -47,15 +73,52 @@ object StoreDetails : ConfigurationCacheStoreBuildOperationType.Details
 
 
 private
-object StoreResult : ConfigurationCacheStoreBuildOperationType.Result
+class StoreResult(
+    private val heapHighWaterMark: Long
+) : ConfigurationCacheStoreBuildOperationType.Result {
+    override fun getHeapHighWaterMark(): Long = heapHighWaterMark
+}
+
+
+private
+object CheckFingerprintDetails : ConfigurationCacheCheckFingerprintBuildOperationType.Details
+
+
+private
+class CheckFingerprintResult(
+    private val checkTimeMillisByCategory: Map<String, Long>
+) : ConfigurationCacheCheckFingerprintBuildOperationType.Result {
+    override fun getCheckTimeMillisByCategory(): Map<String, Long> = checkTimeMillisByCategory
+}
 
 
 private
-fun <T : Any, D : Any, R : Any> BuildOperationExecutor.withOperation(displayName: String, block: () -> T, details: D, result: R): T =
+fun <T : Any, D : Any, R : Any> BuildOperationExecutor.withOperation(displayName: String, block: () -> T, details: D, result: (Long) -> R): T =
     call(object : CallableBuildOperation<T> {
         override fun description(): BuildOperationDescriptor.Builder =
             BuildOperationDescriptor.displayName(displayName).details(details)
 
-        override fun call(context: BuildOperationContext): T =
-            block().also { context.setResult(result) }
+        override fun call(context: BuildOperationContext): T {
+            val heapPools = heapMemoryPools()
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage)
+            return block().also {
+                context.setResult(result(heapHighWaterMarkOf(heapPools)))
+            }
+        }
     })
+
+
+private
+fun heapMemoryPools() =
+    ManagementFactory.getMemoryPoolMXBeans().filter { it.type == MemoryType.HEAP && it.isValid }
+
+
+/**
+ * Adds up the peak usage of the given heap memory pools since they were last reset.
+ *
+ * As the pools do not necessarily peak at the same time, the result is an upper bound of the actual high-water mark.
+ * It also includes whatever else the JVM was doing concurrently.
+ */
+private
+fun heapHighWaterMarkOf(heapPools: List<MemoryPoolMXBean>) =
+    heapPools.sumOf { it.peakUsage?.used ?: 0L }
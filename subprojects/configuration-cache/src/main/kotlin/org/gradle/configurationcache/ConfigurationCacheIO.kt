@@ -42,6 +42,7 @@ import org.gradle.configurationcache.serialization.writeCollection
 import org.gradle.configurationcache.serialization.writeFile
 import org.gradle.internal.build.BuildStateRegistry
 import org.gradle.internal.buildtree.BuildTreeWorkGraph
+import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationProgressEventEmitter
 import org.gradle.internal.serialize.Decoder
 import org.gradle.internal.serialize.Encoder
@@ -71,6 +72,11 @@ class ConfigurationCacheIO internal constructor(
     private
     val encryptionService by lazy { service<EncryptionService>() }
 
+    private
+    val nestedBuildExecutor by lazy {
+        if (startParameter.parallelNestedBuildState) service<BuildOperationExecutor>() else null
+    }
+
     internal
     fun writeCacheEntryDetailsTo(
         buildStateRegistry: BuildStateRegistry,
@@ -170,8 +176,8 @@ class ConfigurationCacheIO internal constructor(
         stateFile: ConfigurationCacheStateFile,
         action: suspend DefaultReadContext.(ConfigurationCacheState) -> T
     ): T {
-        return withReadContextFor(encryptionService.inputStream(stateFile.stateType, stateFile::inputStream)) { codecs ->
-            ConfigurationCacheState(codecs, stateFile, eventEmitter, host).run {
+        return withReadContextFor(stateInputStreamFor(stateFile)) { codecs ->
+            ConfigurationCacheState(codecs, stateFile, eventEmitter, host, nestedBuildExecutor).run {
                 action(this)
             }
         }
@@ -184,14 +190,26 @@ class ConfigurationCacheIO internal constructor(
     ): T {
 
         val build = host.currentBuild
-        val (context, codecs) = writerContextFor(encryptionService.outputStream(stateFile.stateType, stateFile::outputStream), build.gradle.owner.displayName.displayName + " state")
+        val (context, codecs) = writerContextFor(stateOutputStreamFor(stateFile), build.gradle.owner.displayName.displayName + " state")
         return context.useToRun {
             runWriteOperation {
-                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host))
+                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host, nestedBuildExecutor))
             }
         }
     }
 
+    private
+    fun stateInputStreamFor(stateFile: ConfigurationCacheStateFile): InputStream =
+        encryptionService.inputStream(stateFile.stateType, stateFile::inputStream).let {
+            if (startParameter.compressState) BlockDecompressingInputStream(it) else it
+        }
+
+    private
+    fun stateOutputStreamFor(stateFile: ConfigurationCacheStateFile): OutputStream =
+        encryptionService.outputStream(stateFile.stateType, stateFile::outputStream).let {
+            if (startParameter.compressState) BlockCompressingOutputStream(it) else it
+        }
+
     internal
     fun writeModelTo(model: Any, stateFile: ConfigurationCacheStateFile) {
         writeConfigurationCacheState(stateFile) {
@@ -76,6 +76,10 @@ class ConfigurationCacheKey(
         putBuildScan()
         putBoolean(encryptionConfiguration.isEncrypting)
         putHash(encryptionConfiguration.encryptionKeyHashCode)
+        // Only when enabled, so that the keys of existing entries do not change
+        if (startParameter.compressState) {
+            putString("compressed")
+        }
     }
 
     private
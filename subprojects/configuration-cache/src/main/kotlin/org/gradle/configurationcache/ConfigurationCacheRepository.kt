@@ -45,6 +45,9 @@ import java.io.InputStream
 import java.io.OutputStream
 import java.nio.file.Files
 import java.nio.file.StandardCopyOption
+import java.util.zip.ZipEntry
+import java.util.zip.ZipInputStream
+import java.util.zip.ZipOutputStream
 
 
 @ServiceScope(Scopes.BuildTree::class)
@@ -180,6 +183,74 @@ class ConfigurationCacheRepository(
             }
         }
 
+        override fun writeEntryTo(outputStream: OutputStream) {
+            withExclusiveAccessToCache(baseDir) { cacheDir ->
+                markAccessed(cacheDir)
+                ZipOutputStream(outputStream).use { zip ->
+                    entryFilesIn(cacheDir).forEach { file ->
+                        zip.putNextEntry(ZipEntry(file.name))
+                        file.inputStream().use { it.copyTo(zip) }
+                        zip.closeEntry()
+                    }
+                }
+            }
+        }
+
+        override fun readEntryFrom(inputStream: InputStream) {
+            withExclusiveAccessToCache(baseDir) { cacheDir ->
+                val parentDir = cacheDir.parentFile.toPath()
+                Files.createDirectories(parentDir)
+                // Extract next to the entry first, so that a failed or partial read never replaces the local entry
+                val tempDir = Files.createTempDirectory(parentDir, "${cacheDir.name}-").toFile()
+                try {
+                    chmod(tempDir, 448) // octal 0700
+                    extractEntry(inputStream, tempDir)
+                    replaceEntry(cacheDir, tempDir)
+                } finally {
+                    tempDir.deleteRecursively()
+                }
+                markAccessed(cacheDir)
+            }
+        }
+
+        private
+        fun extractEntry(inputStream: InputStream, targetDir: File) {
+            ZipInputStream(inputStream).use { zip ->
+                while (true) {
+                    val entry = zip.nextEntry ?: break
+                    val file = targetDir.resolve(entry.name)
+                    require(file.parentFile == targetDir) {
+                        "Unexpected configuration cache entry file '${entry.name}'."
+                    }
+                    file.outputStream().use { zip.copyTo(it) }
+                    chmod(file, 384) // octal 0600
+                }
+            }
+        }
+
+        private
+        fun replaceEntry(cacheDir: File, newEntryDir: File) {
+            if (cacheDir.exists()) {
+                // A non-empty directory cannot be atomically replaced, so move the stale entry out of the way first
+                val staleDir = Files.createTempDirectory(cacheDir.parentFile.toPath(), "${cacheDir.name}-").toFile()
+                Files.move(cacheDir.toPath(), staleDir.resolve(cacheDir.name).toPath(), StandardCopyOption.ATOMIC_MOVE)
+                staleDir.deleteRecursively()
+            }
+            Files.move(newEntryDir.toPath(), cacheDir.toPath(), StandardCopyOption.ATOMIC_MOVE)
+        }
+
+        /**
+         * Lists the files of the entry, with the entry file last so that an entry is only complete once all of its files are in place.
+         */
+        private
+        fun entryFilesIn(cacheDir: File): List<File> {
+            val entryFile = cacheDir.stateFile(StateType.Entry)
+            return cacheDir.listFiles()
+                ?.filter { it.isFile && it.extension != "tmp" }
+                ?.sortedWith(compareBy({ it == entryFile }, { it.name }))
+                ?: emptyList()
+        }
+
         override fun useForStore(action: (Layout) -> Unit) {
             withExclusiveAccessToCache(baseDir) { cacheDir ->
                 // TODO GlobalCache require(!cacheDir.isDirectory)
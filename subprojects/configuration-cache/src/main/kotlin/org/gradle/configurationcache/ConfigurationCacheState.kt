@@ -76,7 +76,11 @@ import org.gradle.internal.enterprise.core.GradleEnterprisePluginAdapter
 import org.gradle.internal.enterprise.core.GradleEnterprisePluginManager
 import org.gradle.internal.execution.BuildOutputCleanupRegistry
 import org.gradle.internal.file.FileSystemDefaultExcludesProvider
+import org.gradle.internal.operations.BuildOperationContext
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationProgressEventEmitter
+import org.gradle.internal.operations.RunnableBuildOperation
 import org.gradle.plugin.management.internal.PluginRequests
 import org.gradle.util.Path
 import org.gradle.vcs.internal.VcsMappingsStore
@@ -132,7 +136,11 @@ class ConfigurationCacheState(
     private val codecs: Codecs,
     private val stateFile: ConfigurationCacheStateFile,
     private val eventEmitter: BuildOperationProgressEventEmitter,
-    private val host: DefaultConfigurationCache.Host
+    private val host: DefaultConfigurationCache.Host,
+    /**
+     * When not null, the state of included builds and `buildSrc` builds is stored and loaded concurrently using this executor.
+     */
+    private val nestedBuildExecutor: BuildOperationExecutor? = null
 ) {
     /**
      * Writes the state for the whole build starting from the given root [build] and returns the set
@@ -143,6 +151,14 @@ class ConfigurationCacheState(
             writeInt(0x1ecac8e)
         }
 
+    /**
+     * Reads the state for the whole build tree and schedules the work graph of each build that has work.
+     *
+     * The cache entry is keyed by the requested tasks and only contains the nodes that were scheduled for them,
+     * and only the projects with work are registered and created, so nothing unreachable from the requested tasks is decoded here.
+     * Tooling models and project metadata are not part of this state. They are stored per project and loaded on demand,
+     * see [org.gradle.configurationcache.models.ProjectStateStore].
+     */
     suspend fun DefaultReadContext.readRootBuildState(graph: BuildTreeWorkGraph, loadAfterStore: Boolean): BuildTreeWorkGraph.FinalizedGraph {
         val builds = readRootBuild()
         require(readInt() == 0x1ecac8e) {
@@ -242,26 +258,32 @@ class ConfigurationCacheState(
                 builds[state.owner] = builds.getValue(state.owner).hasChildren()
             }
         }
+        val nestedBuilds = NestedBuildStateOperations(nestedBuildExecutor)
         writeCollection(builds.values) { build ->
             writeBuildState(
                 build,
                 StoredBuildTreeState(
                     requiredBuildServicesPerBuild = requiredBuildServicesPerBuild
                 ),
-                rootBuild
+                rootBuild,
+                nestedBuilds
             )
         }
+        nestedBuilds.runPending()
     }
 
     private
     suspend fun DefaultReadContext.readBuildsInTree(rootBuild: ConfigurationCacheBuild): List<CachedBuildState> {
-        return readList {
-            readBuildState(rootBuild)
+        val nestedBuilds = NestedBuildStateOperations(nestedBuildExecutor)
+        val builds = readList {
+            readBuildState(rootBuild, nestedBuilds)
         }
+        nestedBuilds.runPending()
+        return builds.map { it() }
     }
 
     private
-    suspend fun DefaultWriteContext.writeBuildState(build: BuildToStore, buildTreeState: StoredBuildTreeState, rootBuild: VintageGradleBuild) {
+    suspend fun DefaultWriteContext.writeBuildState(build: BuildToStore, buildTreeState: StoredBuildTreeState, rootBuild: VintageGradleBuild, nestedBuilds: NestedBuildStateOperations) {
         val state = build.build.state
         when {
             !build.hasWork && !build.hasChildren -> {
@@ -276,12 +298,12 @@ class ConfigurationCacheState(
 
             state is IncludedBuildState -> {
                 writeEnum(BuildType.IncludedBuild)
-                writeIncludedBuild(state, buildTreeState)
+                writeIncludedBuild(state, buildTreeState, nestedBuilds)
             }
 
             state is StandAloneNestedBuild -> {
                 writeEnum(BuildType.BuildSrcBuild)
-                writeBuildSrcBuild(state, buildTreeState)
+                writeBuildSrcBuild(state, buildTreeState, nestedBuilds)
             }
 
             else -> {
@@ -291,31 +313,39 @@ class ConfigurationCacheState(
     }
 
     private
-    suspend fun DefaultReadContext.readBuildState(rootBuild: ConfigurationCacheBuild): CachedBuildState {
+    suspend fun DefaultReadContext.readBuildState(rootBuild: ConfigurationCacheBuild, nestedBuilds: NestedBuildStateOperations): () -> CachedBuildState {
         return when (readEnum<BuildType>()) {
-            BuildType.BuildWithNoWork -> readBuildWithNoWork(rootBuild)
-            BuildType.RootBuild -> readBuildContent(rootBuild)
-            BuildType.IncludedBuild -> readIncludedBuild(rootBuild)
-            BuildType.BuildSrcBuild -> readBuildSrcBuild(rootBuild)
+            BuildType.BuildWithNoWork -> readBuildWithNoWork(rootBuild).let { state -> { state } }
+            BuildType.RootBuild -> readBuildContent(rootBuild).let { state -> { state } }
+            BuildType.IncludedBuild -> readIncludedBuild(rootBuild, nestedBuilds)
+            BuildType.BuildSrcBuild -> readBuildSrcBuild(rootBuild, nestedBuilds)
         }
     }
 
     private
-    suspend fun DefaultWriteContext.writeIncludedBuild(state: IncludedBuildState, buildTreeState: StoredBuildTreeState) {
+    suspend fun DefaultWriteContext.writeIncludedBuild(state: IncludedBuildState, buildTreeState: StoredBuildTreeState, nestedBuilds: NestedBuildStateOperations) {
         val gradle = state.mutableModel
         withGradleIsolate(gradle, userTypesCodec) {
             write(gradle.settings.settingsScript.resource.file)
             writeBuildDefinition(state.buildDefinition)
             write(state.identityPath)
         }
-        // Encode the build state using the contextualized IO service for the nested build
-        state.projects.withMutableStateOfAllProjects {
-            gradle.serviceOf<ConfigurationCacheIO>().writeIncludedBuildStateTo(stateFileFor(state.buildDefinition), buildTreeState)
+        writeNestedBuildState(state, buildTreeState, nestedBuilds)
+    }
+
+    private
+    fun writeNestedBuildState(state: NestedBuildState, buildTreeState: StoredBuildTreeState, nestedBuilds: NestedBuildStateOperations) {
+        val stateFile = stateFileFor(state.buildDefinition)
+        nestedBuilds.add("Store configuration cache state for ${state.displayName.displayName}") {
+            // Encode the build state using the contextualized IO service for the nested build
+            state.projects.withMutableStateOfAllProjects {
+                state.mutableModel.serviceOf<ConfigurationCacheIO>().writeIncludedBuildStateTo(stateFile, buildTreeState)
+            }
         }
     }
 
     private
-    suspend fun DefaultReadContext.readIncludedBuild(rootBuild: ConfigurationCacheBuild): CachedBuildState {
+    suspend fun DefaultReadContext.readIncludedBuild(rootBuild: ConfigurationCacheBuild, nestedBuilds: NestedBuildStateOperations): () -> CachedBuildState {
         val build = withGradleIsolate(rootBuild.gradle, userTypesCodec) {
             val settingsFile = read() as File?
             val definition = readIncludedBuildDefinition(rootBuild)
@@ -324,8 +354,17 @@ class ConfigurationCacheState(
         }
 
         build.gradle.loadGradleProperties()
-        // Decode the build state using the contextualized IO service for the build
-        return build.gradle.serviceOf<ConfigurationCacheIO>().readIncludedBuildStateFrom(stateFileFor((build.state as NestedBuildState).buildDefinition), build)
+        return readNestedBuildState(build, nestedBuilds)
+    }
+
+    private
+    fun readNestedBuildState(build: ConfigurationCacheBuild, nestedBuilds: NestedBuildStateOperations): () -> CachedBuildState {
+        val state = build.state as NestedBuildState
+        val stateFile = stateFileFor(state.buildDefinition)
+        return nestedBuilds.add("Load configuration cache state for ${state.displayName.displayName}") {
+            // Decode the build state using the contextualized IO service for the build
+            build.gradle.serviceOf<ConfigurationCacheIO>().readIncludedBuildStateFrom(stateFile, build)
+        }
     }
 
     private
@@ -338,26 +377,22 @@ class ConfigurationCacheState(
     }
 
     private
-    suspend fun DefaultWriteContext.writeBuildSrcBuild(state: StandAloneNestedBuild, buildTreeState: StoredBuildTreeState) {
+    suspend fun DefaultWriteContext.writeBuildSrcBuild(state: StandAloneNestedBuild, buildTreeState: StoredBuildTreeState, nestedBuilds: NestedBuildStateOperations) {
         val gradle = state.mutableModel
         withGradleIsolate(gradle, userTypesCodec) {
             write(state.owner.buildIdentifier)
         }
-        // Encode the build state using the contextualized IO service for the nested build
-        state.projects.withMutableStateOfAllProjects {
-            gradle.serviceOf<ConfigurationCacheIO>().writeIncludedBuildStateTo(stateFileFor(state.buildDefinition), buildTreeState)
-        }
+        writeNestedBuildState(state, buildTreeState, nestedBuilds)
     }
 
     private
-    suspend fun DefaultReadContext.readBuildSrcBuild(rootBuild: ConfigurationCacheBuild): CachedBuildState {
+    suspend fun DefaultReadContext.readBuildSrcBuild(rootBuild: ConfigurationCacheBuild, nestedBuilds: NestedBuildStateOperations): () -> CachedBuildState {
         val build = withGradleIsolate(rootBuild.gradle, userTypesCodec) {
             val ownerIdentifier = readNonNull<BuildIdentifier>()
             rootBuild.getBuildSrcOf(ownerIdentifier)
         }
         build.gradle.loadGradleProperties()
-        // Decode the build state using the contextualized IO service for the build
-        return build.gradle.serviceOf<ConfigurationCacheIO>().readIncludedBuildStateFrom(stateFileFor((build.state as NestedBuildState).buildDefinition), build)
+        return readNestedBuildState(build, nestedBuilds)
     }
 
     private
@@ -841,3 +876,71 @@ internal
 enum class BuildType {
     BuildWithNoWork, RootBuild, IncludedBuild, BuildSrcBuild
 }
+
+
+/**
+ * Stores or loads the state of nested builds, each of which is encoded in its own state file, independently of the other builds in the tree.
+ *
+ * Without an [executor], each operation runs as soon as it is added, in the order the builds appear in the root build state.
+ * Otherwise, the operations are deferred until [runPending] is called, which runs them concurrently. This means that nested builds
+ * must not access the mutable state of other builds while they are being stored or loaded.
+ */
+internal
+class NestedBuildStateOperations(
+    private val executor: BuildOperationExecutor?
+) {
+    private
+    val pending = mutableListOf<NestedBuildStateOperation<*>>()
+
+    /**
+     * Adds an operation and returns a function that provides its result once it has completed.
+     */
+    fun <T : Any> add(displayName: String, action: () -> T): () -> T {
+        if (executor == null) {
+            val result = action()
+            return { result }
+        }
+        val operation = NestedBuildStateOperation(displayName, action)
+        pending.add(operation)
+        return operation::result
+    }
+
+    fun runPending() {
+        if (pending.isEmpty()) {
+            return
+        }
+        executor!!.runAllWithAccessToProjectState<NestedBuildStateOperation<*>> { queue ->
+            pending.forEach(queue::add)
+        }
+        // Rethrow the failure of the first build, as the sequential operations would do, rather than a combined failure
+        pending.firstNotNullOfOrNull { it.failure }?.let { throw it }
+        pending.clear()
+    }
+}
+
+
+internal
+class NestedBuildStateOperation<T : Any>(
+    private val displayName: String,
+    private val action: () -> T
+) : RunnableBuildOperation {
+
+    private
+    var value: T? = null
+
+    var failure: Throwable? = null
+
+    fun result(): T =
+        value ?: throw IllegalStateException("$displayName has not completed.")
+
+    override fun run(context: BuildOperationContext) {
+        try {
+            value = action()
+        } catch (e: Throwable) {
+            failure = e
+        }
+    }
+
+    override fun description(): BuildOperationDescriptor.Builder =
+        BuildOperationDescriptor.displayName(displayName)
+}
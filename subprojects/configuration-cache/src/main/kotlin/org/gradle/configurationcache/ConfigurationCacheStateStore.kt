@@ -18,6 +18,8 @@ package org.gradle.configurationcache
 
 import org.gradle.cache.internal.streams.ValueStore
 import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
 
 
 internal
@@ -42,6 +44,16 @@ interface ConfigurationCacheStateStore {
      */
     fun useForStore(action: (ConfigurationCacheRepository.Layout) -> Unit)
 
+    /**
+     * Writes all state files of the entry to the given stream, as a single archive.
+     */
+    fun writeEntryTo(outputStream: OutputStream)
+
+    /**
+     * Replaces the state files of the entry with those of an archive written by [writeEntryTo].
+     */
+    fun readEntryFrom(inputStream: InputStream)
+
     /**
      * Creates a new [ValueStore] that can be used to load and store multiple values.
      */
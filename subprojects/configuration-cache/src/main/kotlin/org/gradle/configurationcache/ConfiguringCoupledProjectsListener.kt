@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.api.internal.project.ProjectState
+
+
+/**
+ * Used when projects are configured in parallel, to configure the target of a cross-project reference before the reference is followed.
+ *
+ * Coupled projects are then configured one after the other, as if the referrer had declared `evaluationDependsOn` on the target,
+ * while decoupled projects keep being configured concurrently.
+ * References between a project and its ancestors are left alone, as a project is always configured after its parent.
+ */
+internal
+class ConfiguringCoupledProjectsListener(
+    private val delegate: CoupledProjectsListener
+) : CoupledProjectsListener {
+
+    override fun onProjectReference(referrer: ProjectState, target: ProjectState) {
+        delegate.onProjectReference(referrer, target)
+        if (referrer.isAncestorOrDescendantOf(target) || !target.isCreated) {
+            return
+        }
+        // A target that is already being configured is not waited for, so that two projects referencing each other cannot deadlock
+        if (target.mutableModel.state.isUnconfigured) {
+            target.ensureConfigured()
+        }
+    }
+
+    private
+    fun ProjectState.isAncestorOrDescendantOf(other: ProjectState): Boolean =
+        isSelfOrAncestorOf(other) || other.isSelfOrAncestorOf(this)
+
+    private
+    fun ProjectState.isSelfOrAncestorOf(other: ProjectState): Boolean =
+        generateSequence(other) { it.parent }.any { it === this }
+}
@@ -147,11 +147,16 @@ class DefaultBuildModelControllerServices(
             problemsListener: ProblemsListener,
             problemFactory: ProblemFactory,
             listenerManager: ListenerManager,
-            dynamicCallProblemReporting: DynamicCallProblemReporting
+            dynamicCallProblemReporting: DynamicCallProblemReporting,
+            buildModelParameters: BuildModelParameters
         ): CrossProjectModelAccess {
             val delegate = VintageIsolatedProjectsProvider().createCrossProjectModelAccess(projectRegistry)
+            val coupledProjectsListener = listenerManager.getBroadcaster(CoupledProjectsListener::class.java).let { listener ->
+                if (buildModelParameters.isParallelProjectConfiguration) ConfiguringCoupledProjectsListener(listener)
+                else listener
+            }
             return ProblemReportingCrossProjectModelAccess(
-                delegate, problemsListener, listenerManager.getBroadcaster(CoupledProjectsListener::class.java), problemFactory, dynamicCallProblemReporting
+                delegate, problemsListener, coupledProjectsListener, problemFactory, dynamicCallProblemReporting
             )
         }
 
@@ -25,6 +25,7 @@ import org.gradle.api.logging.Logging
 import org.gradle.configurationcache.cacheentry.EntryDetails
 import org.gradle.configurationcache.extensions.uncheckedCast
 import org.gradle.configurationcache.fingerprint.ConfigurationCacheFingerprintController
+import org.gradle.configurationcache.fingerprint.FingerprintCheckTimings
 import org.gradle.configurationcache.initialization.ConfigurationCacheStartParameter
 import org.gradle.configurationcache.metadata.ProjectMetadataController
 import org.gradle.configurationcache.models.IntermediateModelController
@@ -64,6 +65,7 @@ class DefaultConfigurationCache internal constructor(
     private val buildOperationExecutor: BuildOperationExecutor,
     private val cacheFingerprintController: ConfigurationCacheFingerprintController,
     private val encryptionService: EncryptionService,
+    private val sharedEntries: SharedConfigurationCacheEntries,
     /**
      * Force the [FileSystemAccess] service to be initialized as it initializes important static state.
      */
@@ -183,6 +185,9 @@ class DefaultConfigurationCache internal constructor(
                 cacheIO.writeCacheEntryDetailsTo(buildStateRegistry, intermediateModels.value.values, projectMetadata.value.values, layout.fileFor(StateType.Entry))
             }
             problems.projectStateStats(reusedProjects.size, updatedProjects.size)
+            if (sharedEntries.isEnabled) {
+                sharedEntries.store(cacheKey, store::writeEntryTo)
+            }
             cacheEntryRequiresCommit = false
             // Can reuse the cache entry for the rest of this build invocation
             cacheAction = ConfigurationCacheAction.LOAD
@@ -274,6 +279,9 @@ class DefaultConfigurationCache internal constructor(
 
     private
     fun checkFingerprint(): CheckedFingerprint {
+        if (sharedEntries.isEnabled) {
+            maybeLoadSharedEntry()
+        }
         return store.useForStateLoad { layout ->
             val entryFile = layout.fileFor(StateType.Entry)
             val entryDetails = cacheIO.readCacheEntryDetailsFrom(entryFile)
@@ -286,6 +294,17 @@ class DefaultConfigurationCache internal constructor(
         }
     }
 
+    /**
+     * Downloads the shared entry when there is no local entry, so it can be checked and reused like a local one.
+     */
+    private
+    fun maybeLoadSharedEntry() {
+        val hasLocalEntry = store.useForStateLoad(StateType.Entry) { it.exists }
+        if (!hasLocalEntry && sharedEntries.load(cacheKey, store::readEntryFrom)) {
+            logger.info("Loaded shared configuration cache entry.")
+        }
+    }
+
     private
     fun <T> runWorkThatContributesToCacheEntry(action: () -> T): T {
         prepareForWork()
@@ -432,7 +451,9 @@ class DefaultConfigurationCache internal constructor(
 
         loadGradleProperties()
 
-        return checkFingerprintAgainstLoadedProperties(entryDetails, layout).also { result ->
+        return buildOperationExecutor.withFingerprintCheckOperation { timings ->
+            checkFingerprintAgainstLoadedProperties(entryDetails, layout, timings)
+        }.also { result ->
             if (result !== CheckedFingerprint.Valid) {
                 // Force Gradle properties to be reloaded so the Gradle properties files
                 // along with any Gradle property defining system properties and environment variables
@@ -443,15 +464,19 @@ class DefaultConfigurationCache internal constructor(
     }
 
     private
-    fun checkFingerprintAgainstLoadedProperties(entryDetails: EntryDetails, layout: ConfigurationCacheRepository.Layout): CheckedFingerprint {
-        val result = checkBuildScopedFingerprint(layout.fileFor(StateType.BuildFingerprint))
+    fun checkFingerprintAgainstLoadedProperties(
+        entryDetails: EntryDetails,
+        layout: ConfigurationCacheRepository.Layout,
+        timings: FingerprintCheckTimings
+    ): CheckedFingerprint {
+        val result = checkBuildScopedFingerprint(layout.fileFor(StateType.BuildFingerprint), timings)
         if (result !is CheckedFingerprint.Valid) {
             return result
         }
 
         // Build inputs are up-to-date, check project specific inputs
 
-        val projectResult = checkProjectScopedFingerprint(layout.fileFor(StateType.ProjectFingerprint))
+        val projectResult = checkProjectScopedFingerprint(layout.fileFor(StateType.ProjectFingerprint), timings)
         if (projectResult is CheckedFingerprint.ProjectsInvalid) {
             intermediateModels.value.restoreFromCacheEntry(entryDetails.intermediateModels, projectResult)
             projectMetadata.value.restoreFromCacheEntry(entryDetails.projectMetadata, projectResult)
@@ -461,19 +486,19 @@ class DefaultConfigurationCache internal constructor(
     }
 
     private
-    fun checkBuildScopedFingerprint(fingerprintFile: ConfigurationCacheStateFile): CheckedFingerprint {
+    fun checkBuildScopedFingerprint(fingerprintFile: ConfigurationCacheStateFile, timings: FingerprintCheckTimings): CheckedFingerprint {
         return readFingerprintFile(fingerprintFile) { host ->
             cacheFingerprintController.run {
-                checkBuildScopedFingerprint(host)
+                checkBuildScopedFingerprint(host, timings)
             }
         }
     }
 
     private
-    fun checkProjectScopedFingerprint(fingerprintFile: ConfigurationCacheStateFile): CheckedFingerprint {
+    fun checkProjectScopedFingerprint(fingerprintFile: ConfigurationCacheStateFile, timings: FingerprintCheckTimings): CheckedFingerprint {
         return readFingerprintFile(fingerprintFile) { host ->
             cacheFingerprintController.run {
-                checkProjectScopedFingerprint(host)
+                checkProjectScopedFingerprint(host, timings)
             }
         }
     }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.api.internal.file.FileResolver
+import org.gradle.api.internal.file.temp.TemporaryFileProvider
+import org.gradle.cache.UnscopedCacheBuilderFactory
+import org.gradle.cache.internal.CleanupActionDecorator
+import org.gradle.cache.scopes.GlobalScopedCacheBuilderFactory
+import org.gradle.caching.BuildCacheEntryReader
+import org.gradle.caching.BuildCacheEntryWriter
+import org.gradle.caching.BuildCacheKey
+import org.gradle.caching.BuildCacheService
+import org.gradle.caching.BuildCacheServiceFactory
+import org.gradle.caching.local.DirectoryBuildCache
+import org.gradle.caching.local.internal.DirectoryBuildCacheFileStoreFactory
+import org.gradle.caching.local.internal.DirectoryBuildCacheServiceFactory
+import org.gradle.configurationcache.initialization.ConfigurationCacheStartParameter
+import org.gradle.internal.concurrent.Stoppable
+import org.gradle.internal.file.FileAccessTimeJournal
+import org.gradle.internal.hash.ChecksumService
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import org.gradle.internal.resource.local.DefaultPathKeyFileStore
+import org.gradle.internal.service.scopes.Scopes
+import org.gradle.internal.service.scopes.ServiceScope
+import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
+
+
+/**
+ * Shares configuration cache entries between build trees through a directory [BuildCacheService].
+ *
+ * An entry is uploaded once it has been committed locally, and downloaded when there is no local entry for the cache key.
+ * A downloaded entry goes through the same fingerprint check as a local one before it is reused.
+ */
+@ServiceScope(Scopes.BuildTree::class)
+internal
+class SharedConfigurationCacheEntries(
+    private val startParameter: ConfigurationCacheStartParameter,
+    unscopedCacheBuilderFactory: UnscopedCacheBuilderFactory,
+    globalCacheBuilderFactory: GlobalScopedCacheBuilderFactory,
+    fileResolver: FileResolver,
+    checksumService: ChecksumService,
+    cleanupActionDecorator: CleanupActionDecorator,
+    fileAccessTimeJournal: FileAccessTimeJournal,
+    temporaryFileProvider: TemporaryFileProvider
+) : Stoppable {
+
+    private
+    val serviceFactory = DirectoryBuildCacheServiceFactory(
+        unscopedCacheBuilderFactory,
+        globalCacheBuilderFactory,
+        fileResolver,
+        DirectoryBuildCacheFileStoreFactory { baseDir -> DefaultPathKeyFileStore(checksumService, baseDir) },
+        cleanupActionDecorator,
+        fileAccessTimeJournal,
+        temporaryFileProvider
+    )
+
+    private
+    val lazyService = lazy {
+        startParameter.sharedEntriesDir?.let(::createService)
+    }
+
+    private
+    val service: BuildCacheService? by lazyService
+
+    val isEnabled: Boolean
+        get() = startParameter.sharedEntriesDir != null
+
+    /**
+     * Downloads the shared entry for [cacheKey], if any.
+     *
+     * @return `true` when an entry was downloaded.
+     */
+    fun load(cacheKey: ConfigurationCacheKey, reader: (InputStream) -> Unit): Boolean {
+        val service = service ?: return false
+        val key = sharedKeyFor(cacheKey)
+        return try {
+            service.load(key, BuildCacheEntryReader(reader))
+        } catch (e: Exception) {
+            logger.warn("Could not load shared configuration cache entry {}: {}", key.hashCode, e.message)
+            logger.info("Loading the shared configuration cache entry failed.", e)
+            false
+        }
+    }
+
+    /**
+     * Uploads the entry for [cacheKey].
+     */
+    fun store(cacheKey: ConfigurationCacheKey, writer: (OutputStream) -> Unit) {
+        val service = service ?: return
+        val key = sharedKeyFor(cacheKey)
+        try {
+            service.store(key, EntryWriter(writer))
+        } catch (e: Exception) {
+            logger.warn("Could not store shared configuration cache entry {}: {}", key.hashCode, e.message)
+            logger.info("Storing the shared configuration cache entry failed.", e)
+        }
+    }
+
+    override fun stop() {
+        if (lazyService.isInitialized()) {
+            service?.close()
+        }
+    }
+
+    private
+    fun createService(directory: File): BuildCacheService =
+        serviceFactory.createBuildCacheService(
+            object : DirectoryBuildCache() {}.also { it.directory = directory },
+            IgnoringDescriber
+        )
+
+    /**
+     * The key only depends on the local cache key, so that entries can be shared between checkouts at different locations.
+     */
+    private
+    fun sharedKeyFor(cacheKey: ConfigurationCacheKey): BuildCacheKey =
+        SharedEntryKey(
+            Hashing.newHasher().apply {
+                putString(cacheKey.string)
+            }.hash()
+        )
+
+    private
+    class SharedEntryKey(private val hash: HashCode) : BuildCacheKey {
+
+        override fun getHashCode(): String =
+            hash.toString()
+
+        override fun toByteArray(): ByteArray =
+            hash.toByteArray()
+
+        override fun getDisplayName(): String =
+            hash.toString()
+    }
+
+    private
+    object IgnoringDescriber : BuildCacheServiceFactory.Describer {
+
+        override fun type(type: String): BuildCacheServiceFactory.Describer =
+            this
+
+        override fun config(name: String, value: String): BuildCacheServiceFactory.Describer =
+            this
+    }
+
+    private
+    class EntryWriter(private val writer: (OutputStream) -> Unit) : BuildCacheEntryWriter {
+
+        override fun writeTo(output: OutputStream) =
+            writer(output)
+
+        // The size is only known once the entry has been written
+        override fun getSize(): Long =
+            -1
+    }
+}
+
@@ -29,10 +29,16 @@ import org.gradle.configurationcache.logger
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.internal.file.FileType
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.operations.BuildOperationContext
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.operations.MultipleBuildOperationFailures
+import org.gradle.internal.operations.RunnableBuildOperation
 import org.gradle.internal.util.NumberUtil.ordinal
 import org.gradle.util.Path
 import java.io.File
 import java.net.URI
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Consumer
 
 
@@ -40,8 +46,19 @@ internal
 typealias InvalidationReason = String
 
 
+/**
+ * Checks the inputs recorded in a configuration cache fingerprint, recording the time spent per category of input in [timings].
+ *
+ * When a [buildOperationExecutor] is given, runs of consecutive file system inputs are checked concurrently in build operations,
+ * within the worker limit of the build. Inputs following such a run are only checked when all inputs in the run are up-to-date,
+ * and the reported reason is always that of the first out-of-date input, as when checking sequentially.
+ */
 internal
-class ConfigurationCacheFingerprintChecker(private val host: Host) {
+class ConfigurationCacheFingerprintChecker(
+    private val host: Host,
+    private val timings: FingerprintCheckTimings = FingerprintCheckTimings(),
+    private val buildOperationExecutor: BuildOperationExecutor? = null
+) {
 
     interface Host {
         val isEncrypted: Boolean
@@ -62,25 +79,33 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
     }
 
     suspend fun ReadContext.checkBuildScopedFingerprint(): CheckedFingerprint {
-        // TODO: log some debug info
+        val fileSystemInputs = mutableListOf<ConfigurationCacheFingerprint>()
         while (true) {
             when (val input = read()) {
                 null -> break
                 is ConfigurationCacheFingerprint -> {
                     // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
-                    val reason = check(input)
-                    if (reason != null) {
-                        return CheckedFingerprint.EntryInvalid(reason)
+                    if (isFileSystemInput(input)) {
+                        // Defer the check, so it can be done concurrently with the following file system inputs
+                        fileSystemInputs.add(input)
+                    } else {
+                        val reason = checkFileSystemInputs(fileSystemInputs) ?: checkAndRecord(input)
+                        if (reason != null) {
+                            return CheckedFingerprint.EntryInvalid(reason)
+                        }
                     }
                 }
                 else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
             }
         }
+        val reason = checkFileSystemInputs(fileSystemInputs)
+        if (reason != null) {
+            return CheckedFingerprint.EntryInvalid(reason)
+        }
         return CheckedFingerprint.Valid
     }
 
     suspend fun ReadContext.checkProjectScopedFingerprint(): CheckedFingerprint {
-        // TODO: log some debug info
         var firstReason: InvalidationReason? = null
         val projects = mutableMapOf<Path, ProjectInvalidationState>()
         while (true) {
@@ -91,7 +116,7 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
                     // Don't check a value for a project that is already out-of-date
                     val state = projects.entryFor(input.projectPath)
                     if (!state.isInvalid) {
-                        val reason = check(input.value)
+                        val reason = checkAndRecord(input.value)
                         if (reason != null) {
                             if (firstReason == null) {
                                 firstReason = reason
@@ -143,6 +168,85 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         }
     }
 
+    private
+    fun isFileSystemInput(input: ConfigurationCacheFingerprint) =
+        input is ConfigurationCacheFingerprint.InputFile
+            || input is ConfigurationCacheFingerprint.DirectoryChildren
+            || input is ConfigurationCacheFingerprint.InputFileSystemEntry
+
+    /**
+     * Checks the given file system inputs and clears the list.
+     *
+     * @return the invalidation reason of the first out-of-date input, or `null` when all inputs are up-to-date.
+     */
+    private
+    fun checkFileSystemInputs(inputs: MutableList<ConfigurationCacheFingerprint>): InvalidationReason? {
+        if (inputs.isEmpty()) {
+            return null
+        }
+        val executor = buildOperationExecutor
+        return try {
+            if (executor == null || inputs.size < MIN_INPUTS_TO_CHECK_CONCURRENTLY) {
+                inputs.asSequence().mapNotNull { checkAndRecord(it) }.firstOrNull()
+            } else {
+                timings.record(CONCURRENT_FILE_SYSTEM_INPUTS_CATEGORY) {
+                    firstInvalidationReasonOf(inputs, executor)
+                }
+            }
+        } finally {
+            inputs.clear()
+        }
+    }
+
+    private
+    fun firstInvalidationReasonOf(inputs: List<ConfigurationCacheFingerprint>, executor: BuildOperationExecutor): InvalidationReason? {
+        val reasons = arrayOfNulls<InvalidationReason>(inputs.size)
+        // Inputs after the first known out-of-date input don't need to be checked
+        val firstInvalid = AtomicInteger(inputs.size)
+        val chunkSize = maxOf(MIN_INPUTS_PER_CHUNK, (inputs.size + maxChunks - 1) / maxChunks)
+        try {
+            executor.runAll<RunnableBuildOperation> { queue ->
+                inputs.indices.chunked(chunkSize).forEach { chunk ->
+                    queue.add(CheckFileSystemInputs(chunk.first(), chunk.last()) {
+                        for (index in chunk) {
+                            if (index > firstInvalid.get()) {
+                                break
+                            }
+                            val reason = check(inputs[index])
+                            if (reason != null) {
+                                reasons[index] = reason
+                                firstInvalid.accumulateAndGet(index) { a, b -> minOf(a, b) }
+                                break
+                            }
+                        }
+                    })
+                }
+            }
+        } catch (e: MultipleBuildOperationFailures) {
+            throw e.causes.singleOrNull() ?: e
+        }
+        return reasons.getOrNull(firstInvalid.get())
+    }
+
+    private
+    class CheckFileSystemInputs(
+        private val first: Int,
+        private val last: Int,
+        private val action: () -> Unit
+    ) : RunnableBuildOperation {
+
+        override fun description(): BuildOperationDescriptor.Builder =
+            BuildOperationDescriptor.displayName("Check configuration cache file system inputs $first to $last")
+
+        override fun run(context: BuildOperationContext) {
+            action()
+        }
+    }
+
+    private
+    val maxChunks: Int
+        get() = Runtime.getRuntime().availableProcessors()
+
     private
     fun MutableMap<Path, ProjectInvalidationState>.entryFor(path: Path) = getOrPut(path) { ProjectInvalidationState() }
 
@@ -247,6 +351,12 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         return null
     }
 
+    private
+    fun checkAndRecord(input: ConfigurationCacheFingerprint): InvalidationReason? =
+        timings.record(input.javaClass.simpleName) {
+            check(input)
+        }
+
     private
     fun checkInitScriptsAreUpToDate(
         previous: List<ConfigurationCacheFingerprint.InputFile>,
@@ -361,3 +471,18 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         }
     }
 }
+
+
+/**
+ * Runs of fewer consecutive file system inputs are checked sequentially, as the cost of scheduling outweighs the benefit.
+ */
+private
+const val MIN_INPUTS_TO_CHECK_CONCURRENTLY = 64
+
+
+private
+const val MIN_INPUTS_PER_CHUNK = 16
+
+
+private
+const val CONCURRENT_FILE_SYSTEM_INPUTS_CATEGORY = "FileSystemInputsCheckedConcurrently"
@@ -53,6 +53,7 @@ import org.gradle.internal.execution.model.InputNormalizer
 import org.gradle.internal.fingerprint.DirectorySensitivity
 import org.gradle.internal.fingerprint.LineEndingSensitivity
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.scripts.ScriptFileResolverListeners
 import org.gradle.internal.service.scopes.Scopes
 import org.gradle.internal.service.scopes.ServiceScope
@@ -89,7 +90,8 @@ class ConfigurationCacheFingerprintController internal constructor(
     private val remoteScriptUpToDateChecker: RemoteScriptUpToDateChecker,
     private val agentStatus: AgentStatus,
     private val problems: ConfigurationCacheProblems,
-    private val encryptionService: EncryptionService
+    private val encryptionService: EncryptionService,
+    private val buildOperationExecutor: BuildOperationExecutor
 ) : Stoppable {
 
     interface Host {
@@ -252,13 +254,17 @@ class ConfigurationCacheFingerprintController internal constructor(
         writingState = writingState.dispose()
     }
 
-    suspend fun ReadContext.checkBuildScopedFingerprint(host: Host): CheckedFingerprint =
-        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host)).run {
+    suspend fun ReadContext.checkBuildScopedFingerprint(host: Host, timings: FingerprintCheckTimings): CheckedFingerprint =
+        ConfigurationCacheFingerprintChecker(
+            CacheFingerprintCheckerHost(host),
+            timings,
+            buildOperationExecutor.takeIf { startParameter.parallelFingerprintCheck }
+        ).run {
             checkBuildScopedFingerprint()
         }
 
-    suspend fun ReadContext.checkProjectScopedFingerprint(host: Host): CheckedFingerprint =
-        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host)).run {
+    suspend fun ReadContext.checkProjectScopedFingerprint(host: Host, timings: FingerprintCheckTimings): CheckedFingerprint =
+        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host), timings).run {
             checkProjectScopedFingerprint()
         }
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.fingerprint
+
+import java.util.concurrent.TimeUnit
+
+
+/**
+ * Accumulates the time spent checking each category of configuration cache fingerprint input.
+ */
+internal
+class FingerprintCheckTimings {
+
+    private
+    val nanosByCategory = linkedMapOf<String, Long>()
+
+    fun <T> record(category: String, action: () -> T): T {
+        val start = System.nanoTime()
+        try {
+            return action()
+        } finally {
+            val elapsed = System.nanoTime() - start
+            synchronized(nanosByCategory) {
+                nanosByCategory.merge(category, elapsed) { a, b -> a + b }
+            }
+        }
+    }
+
+    val millisByCategory: Map<String, Long>
+        get() = synchronized(nanosByCategory) {
+            nanosByCategory.mapValues { (_, nanos) -> TimeUnit.NANOSECONDS.toMillis(nanos) }
+        }
+}
@@ -20,6 +20,7 @@ import org.gradle.StartParameter
 import org.gradle.api.internal.StartParameterInternal
 import org.gradle.api.logging.LogLevel
 import org.gradle.configurationcache.extensions.unsafeLazy
+import org.gradle.configurationcache.serialization.beans.FieldAccessStrategy
 import org.gradle.initialization.StartParameterBuildOptions.ConfigurationCacheProblemsOption
 import org.gradle.initialization.layout.BuildLayout
 import org.gradle.internal.Factory
@@ -47,6 +48,33 @@ class ConfigurationCacheStartParameter(
 
     val encryptionRequested: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.encryption", true)
 
+    /**
+     * Whether the state of included builds and `buildSrc` builds should be stored and loaded concurrently, each in their own state file.
+     */
+    val parallelNestedBuildState: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.parallel-nested-build-state")
+
+    /**
+     * Whether the build state and model files should be compressed, see [org.gradle.configurationcache.BlockCompressingOutputStream].
+     */
+    val compressState: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.compression")
+
+    /**
+     * Whether the file system inputs of the build scoped fingerprint should be checked concurrently, within the worker limit of the build.
+     */
+    val parallelFingerprintCheck: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.parallel-fingerprint-check")
+
+    /**
+     * How the fields of beans are accessed when storing and loading their state, see [FieldAccessStrategy].
+     */
+    val fieldAccessStrategy: FieldAccessStrategy =
+        if (options.getInternalFlag("org.gradle.configuration-cache.internal.method-handle-field-access")) FieldAccessStrategy.MethodHandleLookup
+        else FieldAccessStrategy.FieldReflection
+
+    /**
+     * The directory where configuration cache entries are shared with other build trees, see [org.gradle.configurationcache.SharedConfigurationCacheEntries].
+     */
+    val sharedEntriesDir: File? = options.getInternalString("org.gradle.configuration-cache.internal.shared-entries-dir", null)?.let(::File)
+
     val keystoreDir: String? = options.getInternalString("org.gradle.configuration-cache.internal.key-store-dir", null)
 
     val encryptionAlgorithm: String = options.getInternalString("org.gradle.configuration-cache.internal.encryption-alg", SupportedEncryptionAlgorithm.AES_ECB_PADDING.transformation)
@@ -44,6 +44,8 @@ interface WriteContext : IsolateContext, MutableIsolateContext, Encoder {
 
     val sharedIdentities: WriteIdentities
 
+    val sharedValues: WriteValues
+
     val circularReferences: CircularReferences
 
     override val isolate: WriteIsolate
@@ -260,6 +262,39 @@ inline fun <T : Any> WriteContext.encodePreservingSharedIdentityOf(reference: T,
     encodePreservingIdentityOf(sharedIdentities, reference, encode)
 
 
+/**
+ * Writes [value] only once for all values with an equal [key], to be read with [decodePreservingSharedIdentity].
+ *
+ * Only suitable for immutable values, as values with equal keys share a single instance when read.
+ * The [key] must capture everything observable about the value that its `equals` ignores.
+ */
+internal
+inline fun <T : Any> WriteContext.encodePreservingSharedEqualityOf(value: T, key: Any = value, encode: WriteContext.(T) -> Unit) =
+    encodePreservingIdentityOf(sharedIdentities, sharedValues.canonicalInstanceOf(value, key).uncheckedCast(), encode)
+
+
+/**
+ * Writes each of [strings] only once for all equal strings, to be read with [readSharedStrings].
+ */
+internal
+fun WriteContext.writeSharedStrings(strings: Collection<String>) {
+    writeCollection(strings) { string ->
+        encodePreservingSharedEqualityOf(string) {
+            writeString(it)
+        }
+    }
+}
+
+
+internal
+fun ReadContext.readSharedStrings(): List<String> =
+    readCollectionInto({ size -> ArrayList(size) }) {
+        decodePreservingSharedIdentity {
+            readString()
+        }
+    }
+
+
 internal
 inline fun <T : Any> WriteContext.encodePreservingIdentityOf(identities: WriteIdentities, reference: T, encode: WriteContext.(T) -> Unit) {
     val id = identities.getId(reference)
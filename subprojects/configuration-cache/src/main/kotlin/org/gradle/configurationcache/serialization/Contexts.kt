@@ -61,6 +61,8 @@ class DefaultWriteContext(
 
     override val sharedIdentities = WriteIdentities()
 
+    override val sharedValues = WriteValues(MAX_SHARED_VALUES)
+
     override val circularReferences = CircularReferences()
 
     private
@@ -442,3 +444,10 @@ class DefaultReadIsolate(override val owner: IsolateOwner) : ReadIsolate {
 
     override val identities: ReadIdentities = ReadIdentities()
 }
+
+
+/**
+ * The maximum number of distinct values shared by equality within a single state file, see [WriteValues].
+ */
+private
+const val MAX_SHARED_VALUES = 1 shl 16
@@ -35,6 +35,24 @@ class WriteIdentities {
 }
 
 
+/**
+ * Maps each value to the first written value with the same key, so equal values can be written once.
+ *
+ * At most [maxSize] values are remembered. Values first seen after that are their own canonical instance.
+ */
+class WriteValues(private val maxSize: Int) {
+
+    private
+    val values = HashMap<Any, Any>()
+
+    fun canonicalInstanceOf(value: Any, key: Any = value): Any =
+        when {
+            values.size < maxSize -> values.putIfAbsent(key, value) ?: value
+            else -> values[key] ?: value
+        }
+}
+
+
 class ReadIdentities {
 
     private
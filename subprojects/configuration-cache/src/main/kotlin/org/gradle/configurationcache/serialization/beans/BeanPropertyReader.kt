@@ -30,20 +30,22 @@ import org.gradle.internal.instantiation.InstantiatorFactory
 import org.gradle.internal.reflect.JavaReflectionUtil
 import org.gradle.internal.service.ServiceRegistry
 import java.io.IOException
-import java.lang.reflect.Field
 
 
 class BeanPropertyReader(
     private val beanType: Class<*>,
     private val constructors: BeanConstructors,
-    instantiatorFactory: InstantiatorFactory
+    instantiatorFactory: InstantiatorFactory,
+    fieldAccessStrategy: FieldAccessStrategy = FieldAccessStrategy.FieldReflection
 ) : BeanStateReader {
     // TODO should use the same scheme as the original bean
     private
     val instantiationScheme: InstantiationScheme = instantiatorFactory.decorateScheme()
 
     private
-    val relevantFields = relevantStateOf(beanType)
+    val relevantFields = relevantStateOf(beanType).map { relevantField ->
+        fieldAccessStrategy.accessorFor(relevantField.field) to relevantField.unsupportedFieldType
+    }
 
     private
     val constructorForSerialization by unsafeLazy {
@@ -58,10 +60,9 @@ class BeanPropertyReader(
     }
 
     override suspend fun ReadContext.readStateOf(bean: Any) {
-        for (relevantField in relevantFields) {
-            val field = relevantField.field
-            val fieldName = field.name
-            relevantField.unsupportedFieldType?.let {
+        for ((field, unsupportedFieldType) in relevantFields) {
+            val fieldName = field.field.name
+            unsupportedFieldType?.let {
                 reportUnsupportedFieldType(it, "deserialize", fieldName)
             }
             readPropertyValue(PropertyKind.Field, fieldName) { fieldValue ->
@@ -71,8 +72,8 @@ class BeanPropertyReader(
     }
 
     private
-    fun ReadContext.set(bean: Any, field: Field, value: Any?) {
-        val type = field.type
+    fun ReadContext.set(bean: Any, field: FieldAccessor, value: Any?) {
+        val type = field.field.type
         if (isAssignableTo(type, value)) {
             field.set(bean, value)
         } else if (value != null) {
@@ -25,14 +25,22 @@ import org.gradle.configurationcache.serialization.Codec
 import org.gradle.configurationcache.serialization.WriteContext
 import org.gradle.configurationcache.serialization.withDebugFrame
 import java.lang.reflect.Field
+import kotlin.reflect.KClass
 
 
 class BeanPropertyWriter(
-    beanType: Class<*>
+    beanType: Class<*>,
+    fieldAccessStrategy: FieldAccessStrategy = FieldAccessStrategy.FieldReflection
 ) : BeanStateWriter {
 
     private
-    val relevantFields = relevantStateOf(beanType)
+    val relevantFields = relevantStateOf(beanType).map { relevantField ->
+        RelevantFieldAccessors(
+            fieldAccessStrategy.accessorFor(relevantField.field),
+            relevantField.unsupportedFieldType,
+            relevantField.isExplicitValueField?.let(fieldAccessStrategy::accessorFor)
+        )
+    }
 
     /**
      * Serializes a bean by serializing the value of each of its fields.
@@ -40,32 +48,32 @@ class BeanPropertyWriter(
     override suspend fun WriteContext.writeStateOf(bean: Any) {
         for (relevantField in relevantFields) {
             val field = relevantField.field
-            val fieldName = field.name
+            val fieldName = field.field.name
             val fieldValue =
-                when (val isExplicitValue = relevantField.isExplicitValueField) {
+                when (val isExplicitValue = relevantField.isExplicitValue) {
                     null -> field.get(bean)
                     else -> conventionValueOf(bean, field, isExplicitValue)
                 }
             relevantField.unsupportedFieldType?.let {
                 reportUnsupportedFieldType(it, "serialize", fieldName, fieldValue)
             }
-            withDebugFrame({ field.debugFrameName() }) {
+            withDebugFrame({ field.field.debugFrameName() }) {
                 writeNextProperty(fieldName, fieldValue, PropertyKind.Field)
             }
         }
     }
 
     private
-    fun conventionValueOf(bean: Any, field: Field, isExplicitValue: Field) =
+    fun conventionValueOf(bean: Any, field: FieldAccessor, isExplicitValue: FieldAccessor) =
         field.get(bean).let { fieldValue ->
             if (isExplicitValue.get(bean).uncheckedCast()) {
                 fieldValue
             } else {
-                getConventionValue(bean, field, fieldValue)
+                getConventionValue(bean, field.field, fieldValue)
                     ?.takeIf { conventionValue ->
                         // Prevent convention value to be assigned to a field of incompatible type
                         // A common cause is a regular field type being promoted to a Property/Provider type.
-                        conventionValue.isAssignableTo(field.type)
+                        conventionValue.isAssignableTo(field.field.type)
                     } ?: fieldValue
             }
         }
@@ -84,6 +92,13 @@ class BeanPropertyWriter(
     fun Any?.isAssignableTo(type: Class<*>) =
         (if (type.isPrimitive) wrap(type) else type)
             .isInstance(this)
+
+    private
+    class RelevantFieldAccessors(
+        val field: FieldAccessor,
+        val unsupportedFieldType: KClass<*>?,
+        val isExplicitValue: FieldAccessor?
+    )
 }
 
 
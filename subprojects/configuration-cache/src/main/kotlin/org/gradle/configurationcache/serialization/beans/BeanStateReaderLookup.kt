@@ -26,11 +26,12 @@ import java.util.concurrent.ConcurrentHashMap
 internal
 class BeanStateReaderLookup(
     private val constructors: BeanConstructors,
-    private val instantiatorFactory: InstantiatorFactory
+    private val instantiatorFactory: InstantiatorFactory,
+    private val fieldAccessStrategy: FieldAccessStrategy
 ) {
     private
     val beanStateReaders = ConcurrentHashMap<Class<*>, BeanStateReader>()
 
     fun beanStateReaderFor(beanType: Class<*>): BeanStateReader =
-        beanStateReaders.computeIfAbsent(beanType) { type -> BeanPropertyReader(type, constructors, instantiatorFactory) }
+        beanStateReaders.computeIfAbsent(beanType) { type -> BeanPropertyReader(type, constructors, instantiatorFactory, fieldAccessStrategy) }
 }
@@ -23,10 +23,12 @@ import java.util.concurrent.ConcurrentHashMap
 
 @ServiceScope(Scopes.BuildTree::class)
 internal
-class BeanStateWriterLookup {
+class BeanStateWriterLookup(
+    private val fieldAccessStrategy: FieldAccessStrategy
+) {
     private
     val beanPropertyWriters = ConcurrentHashMap<Class<*>, BeanStateWriter>()
 
     fun beanStateWriterFor(beanType: Class<*>): BeanStateWriter =
-        beanPropertyWriters.computeIfAbsent(beanType, ::BeanPropertyWriter)
+        beanPropertyWriters.computeIfAbsent(beanType) { type -> BeanPropertyWriter(type, fieldAccessStrategy) }
 }
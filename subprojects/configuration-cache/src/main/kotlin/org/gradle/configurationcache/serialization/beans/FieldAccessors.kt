@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.serialization.beans
+
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Field
+
+
+/**
+ * How [BeanPropertyWriter] and [BeanPropertyReader] get and set the values of the [relevant fields][relevantStateOf] of a bean.
+ */
+enum class FieldAccessStrategy {
+
+    /**
+     * Uses [Field.get] and [Field.set] for each access.
+     */
+    FieldReflection {
+        override fun accessorFor(field: Field): FieldAccessor =
+            ReflectiveFieldAccessor(field)
+    },
+
+    /**
+     * Uses [MethodHandle]s created once per field and adapted to take and return [Any],
+     * which avoids the access checks that [Field.get] and [Field.set] perform on each access.
+     *
+     * Not the default, as the handles are not constants the JIT can fold, and [Field.get] and [Field.set]
+     * are themselves implemented with method handles from JDK 18. See `BeanStateSerializationBenchmark`.
+     */
+    MethodHandleLookup {
+        override fun accessorFor(field: Field): FieldAccessor =
+            try {
+                MethodHandleFieldAccessor(field)
+            } catch (e: IllegalAccessException) {
+                // Fields that cannot be written through a method handle, such as the fields of records, cannot be written reflectively either.
+                // Use reflection so the failure is reported when the field is written, as it would be without method handles.
+                ReflectiveFieldAccessor(field)
+            }
+    };
+
+    abstract fun accessorFor(field: Field): FieldAccessor
+}
+
+
+/**
+ * Gets and sets the value of a single field of a bean.
+ */
+interface FieldAccessor {
+
+    val field: Field
+
+    fun get(bean: Any): Any?
+
+    fun set(bean: Any, value: Any?)
+}
+
+
+private
+class ReflectiveFieldAccessor(override val field: Field) : FieldAccessor {
+
+    init {
+        field.makeAccessible()
+    }
+
+    override fun get(bean: Any): Any? =
+        field.get(bean)
+
+    override fun set(bean: Any, value: Any?) {
+        field.set(bean, value)
+    }
+}
+
+
+private
+class MethodHandleFieldAccessor(override val field: Field) : FieldAccessor {
+
+    private
+    val getter: MethodHandle
+
+    private
+    val setter: MethodHandle
+
+    init {
+        field.makeAccessible()
+        val lookup = MethodHandles.lookup()
+        getter = lookup.unreflectGetter(field).asType(getterType)
+        setter = lookup.unreflectSetter(field).asType(setterType)
+    }
+
+    // Fail with the same exception as [Field.get] and [Field.set] when the bean or value has the wrong type
+    override fun get(bean: Any): Any? =
+        try {
+            getter.invoke(bean)
+        } catch (e: ClassCastException) {
+            throw illegalAccessOf(bean, e)
+        }
+
+    override fun set(bean: Any, value: Any?) {
+        try {
+            setter.invoke(bean, value)
+        } catch (e: ClassCastException) {
+            throw illegalAccessOf(bean, e)
+        } catch (e: NullPointerException) {
+            // Unboxing a null value for a primitive field
+            throw illegalAccessOf(bean, e)
+        }
+    }
+
+    private
+    fun illegalAccessOf(bean: Any, cause: RuntimeException) =
+        IllegalArgumentException("Cannot access field $field of ${bean.javaClass.name}", cause)
+
+    private
+    companion object {
+        val getterType: MethodType = MethodType.methodType(Any::class.java, Any::class.java)
+        val setterType: MethodType = MethodType.methodType(Void.TYPE, Any::class.java, Any::class.java)
+    }
+}
@@ -25,6 +25,8 @@ import org.gradle.configurationcache.extensions.uncheckedCast
 import org.gradle.configurationcache.serialization.Codec
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.serialization.WriteContext
+import org.gradle.configurationcache.serialization.decodePreservingSharedIdentity
+import org.gradle.configurationcache.serialization.encodePreservingSharedIdentityOf
 import org.gradle.configurationcache.serialization.readCollection
 import org.gradle.configurationcache.serialization.readNonNull
 import org.gradle.configurationcache.serialization.writeCollection
@@ -53,12 +55,17 @@ class ImmutableAttributesCodec(
     private val managedFactories: ManagedFactoryRegistry
 ) : Codec<ImmutableAttributes> {
 
+    // Immutable attributes are interned by the factory, so equal attributes are usually the same instance
     override suspend fun WriteContext.encode(value: ImmutableAttributes) {
-        writeAttributes(value)
+        encodePreservingSharedIdentityOf(value) {
+            writeAttributes(it)
+        }
     }
 
     override suspend fun ReadContext.decode(): ImmutableAttributes =
-        readAttributesUsing(attributesFactory, managedFactories).asImmutable()
+        decodePreservingSharedIdentity {
+            readAttributesUsing(attributesFactory, managedFactories).asImmutable()
+        }
 }
 
 
@@ -17,20 +17,39 @@
 package org.gradle.configurationcache.serialization.codecs
 
 import com.google.common.collect.ImmutableList
+import org.gradle.configurationcache.extensions.uncheckedCast
 import org.gradle.configurationcache.serialization.Codec
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.serialization.WriteContext
+import org.gradle.configurationcache.serialization.decodePreservingSharedIdentity
+import org.gradle.configurationcache.serialization.encodePreservingSharedEqualityOf
 import org.gradle.configurationcache.serialization.readNonNull
+import org.gradle.configurationcache.serialization.readStrings
 import org.gradle.configurationcache.serialization.writeCollection
+import org.gradle.configurationcache.serialization.writeStrings
 
 
 object ImmutableListCodec : Codec<ImmutableList<Any>> {
 
     override suspend fun WriteContext.encode(value: ImmutableList<Any>) {
-        writeCollection(value)
+        // Collections of strings, such as file patterns, are frequently repeated across tasks
+        if (value.all { it is String }) {
+            writeBoolean(true)
+            encodePreservingSharedEqualityOf(value) {
+                writeStrings(it.uncheckedCast())
+            }
+        } else {
+            writeBoolean(false)
+            writeCollection(value)
+        }
     }
 
     override suspend fun ReadContext.decode(): ImmutableList<Any>? {
+        if (readBoolean()) {
+            return decodePreservingSharedIdentity {
+                ImmutableList.copyOf(readStrings())
+            }
+        }
         val size = readSmallInt()
         val builder = ImmutableList.builderWithExpectedSize<Any>(size)
         for (i in 0 until size) {
@@ -17,19 +17,39 @@
 package org.gradle.configurationcache.serialization.codecs
 
 import com.google.common.collect.ImmutableSet
+import org.gradle.configurationcache.extensions.uncheckedCast
 import org.gradle.configurationcache.serialization.Codec
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.serialization.WriteContext
+import org.gradle.configurationcache.serialization.decodePreservingSharedIdentity
+import org.gradle.configurationcache.serialization.encodePreservingSharedEqualityOf
+import org.gradle.configurationcache.serialization.readStrings
 import org.gradle.configurationcache.serialization.writeCollection
+import org.gradle.configurationcache.serialization.writeStrings
 
 
 object ImmutableSetCodec : Codec<ImmutableSet<Any>> {
 
     override suspend fun WriteContext.encode(value: ImmutableSet<Any>) {
-        writeCollection(value)
+        // Collections of strings, such as file patterns, are frequently repeated across tasks
+        if (value.all { it is String }) {
+            writeBoolean(true)
+            // Set equality ignores the iteration order, which is observable
+            encodePreservingSharedEqualityOf(value, value.asList()) {
+                writeStrings(it.uncheckedCast())
+            }
+        } else {
+            writeBoolean(false)
+            writeCollection(value)
+        }
     }
 
     override suspend fun ReadContext.decode(): ImmutableSet<Any>? {
+        if (readBoolean()) {
+            return decodePreservingSharedIdentity {
+                ImmutableSet.copyOf(readStrings())
+            }
+        }
         val size = readSmallInt()
         val builder = ImmutableSet.builderWithExpectedSize<Any>(size)
         for (i in 0 until size) {
@@ -25,9 +25,9 @@ import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.serialization.WriteContext
 import org.gradle.configurationcache.serialization.readCollection
 import org.gradle.configurationcache.serialization.readNonNull
-import org.gradle.configurationcache.serialization.readStrings
+import org.gradle.configurationcache.serialization.readSharedStrings
 import org.gradle.configurationcache.serialization.writeCollection
-import org.gradle.configurationcache.serialization.writeStrings
+import org.gradle.configurationcache.serialization.writeSharedStrings
 import org.gradle.internal.Factory
 
 
@@ -63,8 +63,9 @@ object IntersectionPatternSetCodec : Codec<IntersectionPatternSet> {
 private
 suspend fun WriteContext.writePatternSet(value: PatternSet) {
     writeBoolean(value.isCaseSensitive)
-    writeStrings(value.includes)
-    writeStrings(value.excludes)
+    // Patterns are frequently repeated across tasks
+    writeSharedStrings(value.includes)
+    writeSharedStrings(value.excludes)
     writeCollection(value.includeSpecs)
     writeCollection(value.excludeSpecs)
 }
@@ -73,8 +74,8 @@ suspend fun WriteContext.writePatternSet(value: PatternSet) {
 private
 suspend fun ReadContext.readPatternSet(value: PatternSet) {
     value.isCaseSensitive = readBoolean()
-    value.setIncludes(readStrings())
-    value.setExcludes(readStrings())
+    value.setIncludes(readSharedStrings())
+    value.setExcludes(readSharedStrings())
     readCollection {
         value.include(readNonNull<Spec<FileTreeElement>>())
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.util.zip.Deflater
+import kotlin.random.Random
+
+
+class BlockCompressionTest {
+
+    @Test
+    fun `round trips content spanning multiple blocks`() {
+        val content = content(10_000)
+
+        val compressed = compress(content, blockSize = 1024)
+
+        assertThat(decompress(compressed).contentEquals(content), equalTo(true))
+    }
+
+    @Test
+    fun `round trips empty content`() {
+        assertThat(decompress(compress(ByteArray(0))).size, equalTo(0))
+    }
+
+    @Test
+    fun `compresses repetitive content`() {
+        val content = "org.gradle.api.DefaultTask".repeat(1000).toByteArray()
+
+        assertThat(compress(content).size < content.size / 10, equalTo(true))
+    }
+
+    @Test
+    fun `skips whole and partial blocks`() {
+        val content = content(10_000)
+        BlockDecompressingInputStream(ByteArrayInputStream(compress(content, blockSize = 1024))).use { input ->
+            assertThat(input.skip(100), equalTo(100L))
+            assertThat(input.read(), equalTo(content[100].toInt() and 0xff))
+            assertThat(input.skip(5000), equalTo(5000L))
+            assertThat(input.read(), equalTo(content[5101].toInt() and 0xff))
+            assertThat(input.skip(10_000), equalTo(10_000L - 5102))
+            assertThat(input.read(), equalTo(-1))
+        }
+    }
+
+    @Test(expected = IOException::class)
+    fun `fails on truncated stream`() {
+        val compressed = compress(content(10_000), blockSize = 1024)
+
+        decompress(compressed.copyOf(compressed.size - 8))
+    }
+
+    @Test
+    fun `flushing does not end the current block`() {
+        val content = content(10_000)
+        val outputStream = ByteArrayOutputStream()
+        BlockCompressingOutputStream(outputStream, blockSize = 1024).use { output ->
+            content.forEach { byte ->
+                output.write(byte.toInt())
+                output.flush()
+            }
+        }
+
+        assertThat(outputStream.toByteArray().contentEquals(compress(content, blockSize = 1024)), equalTo(true))
+    }
+
+    @Test(expected = IOException::class)
+    fun `fails on block that needs a dictionary`() {
+        val content = "org.gradle.api.DefaultTask".toByteArray()
+        val deflater = Deflater()
+        deflater.setDictionary("org.gradle".toByteArray())
+        deflater.setInput(content)
+        deflater.finish()
+        val compressed = ByteArray(1024)
+        val compressedLength = deflater.deflate(compressed)
+        deflater.end()
+
+        val outputStream = ByteArrayOutputStream()
+        DataOutputStream(outputStream).use { output ->
+            output.writeInt(content.size)
+            output.writeInt(compressedLength)
+            output.write(compressed, 0, compressedLength)
+            output.writeInt(0)
+            output.writeInt(0)
+        }
+
+        decompress(outputStream.toByteArray())
+    }
+
+    private
+    fun content(size: Int): ByteArray {
+        val random = Random(42)
+        // Mix of repetitive and random bytes
+        return ByteArray(size) { index -> if (index % 3 == 0) random.nextInt().toByte() else (index % 17).toByte() }
+    }
+
+    private
+    fun compress(content: ByteArray, blockSize: Int = 256 * 1024): ByteArray {
+        val outputStream = ByteArrayOutputStream()
+        BlockCompressingOutputStream(outputStream, blockSize).use {
+            it.write(content)
+        }
+        return outputStream.toByteArray()
+    }
+
+    private
+    fun decompress(compressed: ByteArray): ByteArray =
+        BlockDecompressingInputStream(ByteArrayInputStream(compressed)).use {
+            it.readBytes()
+        }
+}
@@ -115,6 +115,18 @@ class ConfigurationCacheKeyTest {
         )
     }
 
+    @Test
+    fun `cache key honours state compression only when enabled`() {
+        assertThat(
+            cacheKeyStringFromStartParameter(mapOf(COMPRESSION to "false")) { },
+            equalTo(cacheKeyStringFromStartParameter { })
+        )
+        assertThat(
+            cacheKeyStringFromStartParameter(mapOf(COMPRESSION to "true")) { },
+            not(equalTo(cacheKeyStringFromStartParameter { }))
+        )
+    }
+
     @Test
     fun `sanity check`() {
         assertThat(
@@ -124,7 +136,10 @@ class ConfigurationCacheKeyTest {
     }
 
     private
-    fun cacheKeyStringFromStartParameter(configure: StartParameterInternal.() -> Unit): String {
+    fun cacheKeyStringFromStartParameter(
+        internalOptions: Map<String, String> = mapOf(),
+        configure: StartParameterInternal.() -> Unit
+    ): String {
         val startParameter = StartParameterInternal().apply(configure)
         return ConfigurationCacheKey(
             ConfigurationCacheStartParameter(
@@ -135,8 +150,8 @@ class ConfigurationCacheKeyTest {
                     null
                 ),
                 startParameter,
-                DefaultInternalOptions(mapOf()),
-                BuildModelParameters(false, true, false, false, false, false, false, LogLevel.LIFECYCLE)
+                DefaultInternalOptions(internalOptions),
+                BuildModelParameters(false, true, false, false, false, false, false, false, LogLevel.LIFECYCLE)
             ),
             RunTasksRequirements(startParameter),
             object : EncryptionConfiguration {
@@ -153,4 +168,9 @@ class ConfigurationCacheKeyTest {
     private
     fun file(path: String) =
         testDirectoryProvider.file(path)
+
+    private
+    companion object {
+        const val COMPRESSION = "org.gradle.configuration-cache.internal.compression"
+    }
 }
@@ -38,6 +38,7 @@ import org.gradle.configurationcache.serialization.Tracer
 import org.gradle.configurationcache.serialization.WriteContext
 import org.gradle.configurationcache.serialization.WriteIdentities
 import org.gradle.configurationcache.serialization.WriteIsolate
+import org.gradle.configurationcache.serialization.WriteValues
 import org.gradle.configurationcache.serialization.beans.BeanStateReader
 import org.gradle.configurationcache.serialization.beans.BeanStateWriter
 import org.gradle.configurationcache.serialization.runReadOperation
@@ -45,9 +46,13 @@ import org.gradle.configurationcache.serialization.runWriteOperation
 import org.gradle.internal.Try
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.internal.serialize.Decoder
 import org.gradle.internal.serialize.Encoder
 import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.hasItem
+import org.hamcrest.CoreMatchers.startsWith
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Test
 import java.io.File
@@ -201,6 +206,38 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `first modified file is reported when files are checked concurrently`() {
+        val files = (0 until 200).map { File("build$it.gradle.kts") }
+        val modified = setOf(files[42], files[150])
+        val buildOperationExecutor = TestBuildOperationExecutor()
+        val timings = FingerprintCheckTimings()
+        assertThat(
+            checkFingerprintGiven(
+                mock {
+                    on { hashCodeOf(any()) }.then { invocation ->
+                        TestHashCodes.hashCodeFrom(if (invocation.getArgument<File>(0) in modified) 2 else 1)
+                    }
+                    on { displayNameOf(any()) }.then { invocation ->
+                        invocation.getArgument<File>(0).name
+                    }
+                },
+                files.map { ConfigurationCacheFingerprint.InputFile(it, TestHashCodes.hashCodeFrom(1)) },
+                timings,
+                buildOperationExecutor
+            ),
+            equalTo("file 'build42.gradle.kts' has changed")
+        )
+        assertThat(
+            buildOperationExecutor.operations.map { it.displayName },
+            hasItem(startsWith("Check configuration cache file system inputs 0 to "))
+        )
+        assertThat(
+            timings.millisByCategory.keys,
+            equalTo(setOf("FileSystemInputsCheckedConcurrently"))
+        )
+    }
+
     private
     fun invalidationReasonForInitScriptsChange(
         from: Iterable<Pair<File, HashCode>>,
@@ -226,15 +263,24 @@ class ConfigurationCacheFingerprintCheckerTest {
     fun checkFingerprintGiven(
         host: ConfigurationCacheFingerprintChecker.Host,
         fingerprint: ConfigurationCacheFingerprint
+    ): InvalidationReason? =
+        checkFingerprintGiven(host, listOf(fingerprint))
+
+    private
+    fun checkFingerprintGiven(
+        host: ConfigurationCacheFingerprintChecker.Host,
+        fingerprints: List<ConfigurationCacheFingerprint>,
+        timings: FingerprintCheckTimings = FingerprintCheckTimings(),
+        buildOperationExecutor: BuildOperationExecutor? = null
     ): InvalidationReason? {
 
         val readContext = recordWritingOf {
-            write(fingerprint)
+            fingerprints.forEach { write(it) }
             write(null)
         }
 
         val checkedFingerprint = readContext.runReadOperation {
-            ConfigurationCacheFingerprintChecker(host).run {
+            ConfigurationCacheFingerprintChecker(host, timings, buildOperationExecutor).run {
                 checkBuildScopedFingerprint()
             }
         }
@@ -285,6 +331,9 @@ class ConfigurationCacheFingerprintCheckerTest {
         override val sharedIdentities: WriteIdentities
             get() = undefined()
 
+        override val sharedValues: WriteValues
+            get() = undefined()
+
         override val isolate: WriteIsolate
             get() = undefined()
 
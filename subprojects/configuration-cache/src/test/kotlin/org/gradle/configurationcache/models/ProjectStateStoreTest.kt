@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.models
+
+import org.gradle.cache.internal.streams.DefaultValueStore
+import org.gradle.cache.internal.streams.ValueStore
+import org.gradle.configurationcache.CheckedFingerprint
+import org.gradle.configurationcache.ConfigurationCacheRepository
+import org.gradle.configurationcache.ConfigurationCacheStateFile
+import org.gradle.configurationcache.ConfigurationCacheStateStore
+import org.gradle.configurationcache.StateType
+import org.gradle.internal.serialize.Decoder
+import org.gradle.internal.serialize.Encoder
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Path
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Rule
+import org.junit.Test
+import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
+
+
+class ProjectStateStoreTest {
+
+    @JvmField
+    @Rule
+    val testDirectoryProvider = TestNameTestDirectoryProvider(javaClass)
+
+    @Test
+    fun `values restored from a cache entry are decoded only when requested`() {
+        val stateStore = TestStateStore(testDirectoryProvider.testDirectory)
+        val entry = TestProjectStateStore(stateStore).use { store ->
+            listOf(":a", ":b", ":c").forEach { path ->
+                store.loadOrCreateValue(path) { "value of $path" }
+            }
+            store.values
+        }
+
+        TestProjectStateStore(stateStore).use { store ->
+            store.restoreFromCacheEntry(entry, CheckedFingerprint.ProjectsInvalid("test", setOf(Path.path(":c"))))
+
+            assertThat(stateStore.valueStoresCreated, equalTo(1))
+            assertThat(store.decoded, equalTo(listOf<String>()))
+
+            assertThat(store.loadOrCreateValue(":b") { throw AssertionError("should be reused") }, equalTo("value of :b"))
+
+            assertThat(stateStore.valueStoresCreated, equalTo(2))
+            assertThat(store.decoded, equalTo(listOf("value of :b")))
+        }
+    }
+
+    private
+    class TestProjectStateStore(
+        store: ConfigurationCacheStateStore
+    ) : ProjectStateStore<String, String>(store, StateType.IntermediateModels) {
+
+        val decoded = mutableListOf<String>()
+
+        override fun projectPathForKey(key: String): Path = Path.path(key)
+
+        override fun write(encoder: Encoder, value: String) {
+            encoder.writeString(value)
+        }
+
+        override fun read(decoder: Decoder): String =
+            decoder.readString().also { decoded.add(it) }
+    }
+
+    private
+    class TestStateStore(private val dir: File) : ConfigurationCacheStateStore {
+
+        var valueStoresCreated = 0
+
+        override fun <T> createValueStore(stateType: StateType, writer: ValueStore.Writer<T>, reader: ValueStore.Reader<T>): ValueStore<T> {
+            valueStoresCreated += 1
+            return DefaultValueStore(dir, stateType.name, writer, reader)
+        }
+
+        override fun assignSpoolFile(stateType: StateType): ConfigurationCacheStateStore.StateFile =
+            throw UnsupportedOperationException()
+
+        override fun <T : Any> useForStateLoad(action: (ConfigurationCacheRepository.Layout) -> T): T =
+            throw UnsupportedOperationException()
+
+        override fun <T : Any> useForStateLoad(stateType: StateType, action: (ConfigurationCacheStateFile) -> T): T =
+            throw UnsupportedOperationException()
+
+        override fun useForStore(action: (ConfigurationCacheRepository.Layout) -> Unit) =
+            throw UnsupportedOperationException()
+
+        override fun writeEntryTo(outputStream: OutputStream) =
+            throw UnsupportedOperationException()
+
+        override fun readEntryFrom(inputStream: InputStream) =
+            throw UnsupportedOperationException()
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.serialization.beans
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+
+class FieldAccessStrategyTest {
+
+    @Test
+    fun `gets and sets reference, primitive and final fields`() {
+        for (strategy in FieldAccessStrategy.values()) {
+            val bean = Bean("initial", 1, listOf("a"))
+            val accessors = Bean::class.java.declaredFields.associate { it.name to strategy.accessorFor(it) }
+
+            assertThat(accessors.getValue("name").get(bean), equalTo<Any?>("initial"))
+            assertThat(accessors.getValue("count").get(bean), equalTo<Any?>(1))
+            assertThat(accessors.getValue("values").get(bean), equalTo<Any?>(listOf("a")))
+
+            accessors.getValue("name").set(bean, null)
+            accessors.getValue("count").set(bean, 42)
+            accessors.getValue("values").set(bean, listOf("b", "c"))
+
+            assertThat("$strategy", bean, equalTo(Bean(null, 42, listOf("b", "c"))))
+        }
+    }
+
+    @Test
+    fun `fails with IllegalArgumentException when the value or bean has the wrong type`() {
+        for (strategy in FieldAccessStrategy.values()) {
+            val bean = Bean("initial", 1, listOf("a"))
+            val accessors = Bean::class.java.declaredFields.associate { it.name to strategy.accessorFor(it) }
+
+            assertIllegalArgument("$strategy sets a value of the wrong type") {
+                accessors.getValue("name").set(bean, 42)
+            }
+            assertIllegalArgument("$strategy sets null to a primitive field") {
+                accessors.getValue("count").set(bean, null)
+            }
+            assertIllegalArgument("$strategy gets a field of another type") {
+                accessors.getValue("name").get("not a bean")
+            }
+        }
+    }
+
+    private
+    fun assertIllegalArgument(description: String, action: () -> Unit) {
+        try {
+            action()
+        } catch (e: IllegalArgumentException) {
+            return
+        }
+        throw AssertionError("Expected IllegalArgumentException when $description")
+    }
+
+    private
+    data class Bean(
+        var name: String?,
+        private var count: Int,
+        val values: List<String>
+    )
+}
@@ -17,6 +17,7 @@
 package org.gradle.configurationcache.serialization.codecs
 
 import com.nhaarman.mockitokotlin2.mock
+import org.gradle.api.tasks.util.PatternSet
 import org.gradle.cache.internal.TestCrossBuildInMemoryCacheFactory
 import org.gradle.configurationcache.extensions.uncheckedCast
 import org.gradle.configurationcache.extensions.useToRun
@@ -30,10 +31,12 @@ import org.gradle.configurationcache.serialization.MutableIsolateContext
 import org.gradle.configurationcache.serialization.beans.BeanConstructors
 import org.gradle.configurationcache.serialization.beans.BeanStateReaderLookup
 import org.gradle.configurationcache.serialization.beans.BeanStateWriterLookup
+import org.gradle.configurationcache.serialization.beans.FieldAccessStrategy
 import org.gradle.configurationcache.serialization.codecs.jos.JavaSerializationEncodingLookup
 import org.gradle.configurationcache.serialization.runReadOperation
 import org.gradle.configurationcache.serialization.runWriteOperation
 import org.gradle.configurationcache.serialization.withIsolate
+import org.gradle.internal.Factory
 import org.gradle.internal.io.NullOutputStream
 import org.gradle.internal.serialize.FlushableEncoder
 import org.gradle.internal.serialize.kryo.KryoBackedDecoder
@@ -132,7 +135,7 @@ abstract class AbstractUserTypeCodecTest {
             codec = codec,
             encoder = encoder,
             scopeLookup = mock(),
-            beanStateWriterLookup = BeanStateWriterLookup(),
+            beanStateWriterLookup = BeanStateWriterLookup(FieldAccessStrategy.FieldReflection),
             logger = mock(),
             tracer = null,
             problemsListener = problemHandler
@@ -143,7 +146,7 @@ abstract class AbstractUserTypeCodecTest {
         DefaultReadContext(
             codec = codec,
             decoder = KryoBackedDecoder(inputStream),
-            beanStateReaderLookup = BeanStateReaderLookup(BeanConstructors(TestCrossBuildInMemoryCacheFactory()), TestUtil.instantiatorFactory()),
+            beanStateReaderLookup = BeanStateReaderLookup(BeanConstructors(TestCrossBuildInMemoryCacheFactory()), TestUtil.instantiatorFactory(), FieldAccessStrategy.FieldReflection),
             logger = mock(),
             problemsListener = mock()
         )
@@ -174,7 +177,7 @@ abstract class AbstractUserTypeCodecTest {
         attributesFactory = mock(),
         valueSourceProviderFactory = mock(),
         calculatedValueContainerFactory = mock(),
-        patternSetFactory = mock(),
+        patternSetFactory = Factory { PatternSet() },
         fileOperations = mock(),
         fileFactory = mock(),
         includedTaskGraph = mock(),
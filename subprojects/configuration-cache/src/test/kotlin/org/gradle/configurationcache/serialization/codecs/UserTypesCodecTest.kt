@@ -16,6 +16,9 @@
 
 package org.gradle.configurationcache.serialization.codecs
 
+import com.google.common.collect.ImmutableList
+import com.google.common.collect.ImmutableSet
+import org.gradle.api.tasks.util.PatternSet
 import org.gradle.configurationcache.problems.PropertyTrace
 import org.hamcrest.CoreMatchers.equalTo
 import org.hamcrest.CoreMatchers.sameInstance
@@ -38,6 +41,64 @@ class UserTypesCodecTest : AbstractUserTypeCodecTest() {
         )
     }
 
+    @Test
+    fun `shares equal patterns of pattern sets`() {
+
+        val patternSets = arrayListOf(
+            PatternSet().include("src/main/java/**").exclude("**/*.tmp"),
+            PatternSet().include(String("src/main/java/**".toCharArray()))
+        )
+
+        val read = configurationCacheRoundtripOf(patternSets)
+
+        assertThat(read.map { it.includes }, equalTo(patternSets.map { it.includes }))
+        assertThat(read.map { it.excludes }, equalTo(patternSets.map { it.excludes }))
+        assertThat(read[0].includes.single(), sameInstance(read[1].includes.single()))
+    }
+
+    @Test
+    fun `shares equal immutable collections of strings`() {
+
+        val patterns = arrayListOf(
+            ImmutableList.of("**/*.java", "**/*.kt"),
+            ImmutableList.copyOf(arrayOf("**/*.java", "**/*.kt")),
+            ImmutableSet.of("**/*.java"),
+            ImmutableSet.copyOf(arrayOf("**/*.java"))
+        )
+
+        val read = configurationCacheRoundtripOf(patterns)
+
+        assertThat(read, equalTo(patterns))
+        assertThat(read[0], sameInstance(read[1]))
+        assertThat(read[2], sameInstance(read[3]))
+    }
+
+    @Test
+    fun `can handle more distinct immutable collections than are shared`() {
+
+        val lists = (0 until 70_000).mapTo(ArrayList()) { ImmutableList.of("string$it") }
+        val repeated = arrayListOf(ImmutableList.of("string0"), ImmutableList.of("string69999"), ImmutableList.of("string69999"))
+
+        assertThat(
+            configurationCacheRoundtripOf(lists to repeated),
+            equalTo(lists to repeated)
+        )
+    }
+
+    @Test
+    fun `preserves the order of equal immutable sets of strings`() {
+
+        val sets = arrayListOf(
+            ImmutableSet.of("**/*.java", "**/*.kt"),
+            ImmutableSet.of("**/*.kt", "**/*.java")
+        )
+
+        val read = configurationCacheRoundtripOf(sets)
+
+        assertThat(read[0].toList(), equalTo(listOf("**/*.java", "**/*.kt")))
+        assertThat(read[1].toList(), equalTo(listOf("**/*.kt", "**/*.java")))
+    }
+
     @Test
     fun `internal types codec leaves not implemented trace for unsupported types`() {
 
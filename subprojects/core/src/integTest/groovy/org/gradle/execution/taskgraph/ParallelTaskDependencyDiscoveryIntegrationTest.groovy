@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.taskgraph
+
+import org.gradle.execution.plan.TaskDependencyPrefetcher
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.BuildOperationsFixture
+import spock.lang.Timeout
+
+import java.util.regex.Pattern
+
+class ParallelTaskDependencyDiscoveryIntegrationTest extends AbstractIntegrationSpec {
+
+    def operations = new BuildOperationsFixture(executer, temporaryFolder)
+
+    def setup() {
+        settingsFile << """
+            include "a", "b", "c", "d"
+        """
+        buildFile << """
+            subprojects {
+                apply plugin: "java-library"
+                tasks.register("process") {
+                    dependsOn(tasks.named("compileJava"))
+                }
+            }
+
+            gradle.taskGraph.whenReady { graph ->
+                graph.allTasks.each { task ->
+                    println "dependencies of \${task.path}: \${graph.getDependencies(task)*.path.sort()}"
+                }
+            }
+        """
+        file("a/build.gradle") << """
+            dependencies {
+                api project(":b")
+            }
+        """
+        file("c/build.gradle") << """
+            dependencies {
+                implementation project(":a")
+            }
+        """
+        file("d/build.gradle") << """
+            dependencies {
+                implementation project(":c")
+            }
+            tasks.register("aggregate") {
+                dependsOn(":a:process", ":b:process")
+                dependsOn(provider { tasks.named("process") })
+            }
+        """
+    }
+
+    @Timeout(120)
+    def "discovering the dependencies of tasks in different projects in parallel produces the same task graph"() {
+        when:
+        runWithParallelDiscovery(false)
+        def serialGraph = taskGraph()
+
+        then:
+        serialGraph.contains("dependencies of :c:compileJava: [:a:compileJava, :b:compileJava]")
+        serialGraph.contains("dependencies of :d:aggregate: [:a:process, :b:process, :d:process]")
+        discoveryOperations().empty
+
+        when:
+        runWithParallelDiscovery(true)
+
+        then:
+        taskGraph() == serialGraph
+        def discovered = discoveryOperations()*.displayName
+        discovered.contains("Discover task dependencies for project ':a'")
+        discovered.contains("Discover task dependencies for project ':b'")
+    }
+
+    private void runWithParallelDiscovery(boolean enabled) {
+        run ":d:aggregate", ":c:process", "--parallel", "-D${TaskDependencyPrefetcher.PARALLEL_DISCOVERY.systemPropertyName}=${enabled}"
+    }
+
+    private List<?> discoveryOperations() {
+        return operations.all(Pattern.compile("Discover task dependencies for .*"))
+    }
+
+    private List<String> taskGraph() {
+        return output.readLines().findAll { it.startsWith("dependencies of ") }
+    }
+}
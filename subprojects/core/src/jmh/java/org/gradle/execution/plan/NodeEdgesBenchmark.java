@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the cost of building up the edges of a large graph of nodes, with and without compacting them once the graph is complete.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation rates.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class NodeEdgesBenchmark {
+
+    @Param({"10000", "100000"})
+    int nodeCount;
+
+    @Param({"4", "16"})
+    int dependenciesPerNode;
+
+    @Benchmark
+    public List<Node> buildGraph() {
+        return createGraph();
+    }
+
+    @Benchmark
+    public List<Node> buildAndCompactGraph() {
+        List<Node> nodes = createGraph();
+        for (Node node : nodes) {
+            node.compactEdges();
+        }
+        return nodes;
+    }
+
+    private List<Node> createGraph() {
+        Random random = new Random(nodeCount);
+        List<Node> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            Node node = new BenchmarkNode();
+            node.setIndex(i);
+            nodes.add(node);
+            if (i > 0) {
+                for (int j = 0; j < dependenciesPerNode; j++) {
+                    node.addDependencySuccessor(nodes.get(random.nextInt(i)));
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private static class BenchmarkNode extends CreationOrderedNode {
+        @Nullable
+        @Override
+        public Throwable getNodeFailure() {
+            return null;
+        }
+
+        @Override
+        public void resolveDependencies(TaskDependencyResolver dependencyResolver) {
+        }
+
+        @Override
+        public String toString() {
+            return "node " + getOrder();
+        }
+    }
+}
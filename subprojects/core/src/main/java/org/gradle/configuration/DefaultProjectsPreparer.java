@@ -38,7 +38,10 @@ public DefaultProjectsPreparer(
 
     @Override
     public void prepareProjects(GradleInternal gradle) {
-        if (!buildModelParameters.isConfigureOnDemand() || !gradle.isRootBuild()) {
+        if (buildModelParameters.isParallelProjectConfiguration()) {
+            projectConfigurer.configureHierarchyInParallel(gradle.getRootProject());
+            new ProjectsEvaluatedNotifier(buildOperationExecutor).notify(gradle);
+        } else if (!buildModelParameters.isConfigureOnDemand() || !gradle.isRootBuild()) {
             projectConfigurer.configureHierarchy(gradle.getRootProject());
             new ProjectsEvaluatedNotifier(buildOperationExecutor).notify(gradle);
         }
@@ -37,4 +37,10 @@ public interface ProjectConfigurer {
      */
     void configureHierarchy(ProjectInternal project);
 
+    /**
+     * Configures the given project and then all its sub-projects concurrently, when parallel execution is enabled.
+     * A project is always configured after its parent.
+     */
+    void configureHierarchyInParallel(ProjectInternal project);
+
 }
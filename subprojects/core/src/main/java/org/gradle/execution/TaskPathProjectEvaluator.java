@@ -19,13 +19,33 @@
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
+import org.gradle.util.Path;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
+    private static final Logger LOGGER = Logging.getLogger(TaskPathProjectEvaluator.class);
+
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectLeaseRegistry projectLeaseRegistry;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, ProjectLeaseRegistry projectLeaseRegistry) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectLeaseRegistry = projectLeaseRegistry;
     }
 
     @Override
@@ -49,4 +69,71 @@ public void configureHierarchy(ProjectInternal project) {
             configure((ProjectInternal) sub);
         }
     }
+
+    @Override
+    public void configureHierarchyInParallel(ProjectInternal project) {
+        if (!projectLeaseRegistry.getAllowsParallelExecution()) {
+            configureHierarchy(project);
+            return;
+        }
+        configure(project);
+        if (cancellationToken.isCancellationRequested()) {
+            throw new BuildCancelledException();
+        }
+        // Each project configures its parent first, so the order in which the projects are picked up does not matter
+        ConcurrentLinkedQueue<ProjectConfigurationTime> times = new ConcurrentLinkedQueue<>();
+        buildOperationExecutor.runAllWithAccessToProjectState(queue -> {
+            for (Project sub : project.getSubprojects()) {
+                queue.add(new ConfigureProjectOperation((ProjectInternal) sub, times));
+            }
+        });
+        logConfigurationTimes(times);
+    }
+
+    private static void logConfigurationTimes(Iterable<ProjectConfigurationTime> times) {
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        List<ProjectConfigurationTime> sorted = new ArrayList<>();
+        times.forEach(sorted::add);
+        sorted.sort(Comparator.comparingLong((ProjectConfigurationTime time) -> time.nanos).reversed());
+        for (ProjectConfigurationTime time : sorted) {
+            LOGGER.info("Configured project {} in {} ms.", time.identityPath, TimeUnit.NANOSECONDS.toMillis(time.nanos));
+        }
+    }
+
+    private static class ProjectConfigurationTime {
+        private final Path identityPath;
+        private final long nanos;
+
+        private ProjectConfigurationTime(Path identityPath, long nanos) {
+            this.identityPath = identityPath;
+            this.nanos = nanos;
+        }
+    }
+
+    private class ConfigureProjectOperation implements RunnableBuildOperation {
+        private final ProjectInternal project;
+        private final ConcurrentLinkedQueue<ProjectConfigurationTime> times;
+
+        private ConfigureProjectOperation(ProjectInternal project, ConcurrentLinkedQueue<ProjectConfigurationTime> times) {
+            this.project = project;
+            this.times = times;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            if (cancellationToken.isCancellationRequested()) {
+                throw new BuildCancelledException();
+            }
+            long start = System.nanoTime();
+            configure(project);
+            times.add(new ProjectConfigurationTime(project.getIdentityPath(), System.nanoTime() - start));
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure project " + project.getIdentityPath() + " in parallel");
+        }
+    }
 }
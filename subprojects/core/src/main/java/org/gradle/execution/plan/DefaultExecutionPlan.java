@@ -26,7 +26,9 @@
 import org.gradle.api.specs.Specs;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
 
+import javax.annotation.Nullable;
 import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -56,11 +58,16 @@ public class DefaultExecutionPlan implements ExecutionPlan, QueryableExecutionPl
     private final ExecutionNodeAccessHierarchy outputHierarchy;
     private final ExecutionNodeAccessHierarchy destroyableHierarchy;
     private final ResourceLockCoordinationService lockCoordinator;
+    @Nullable
+    private final TaskDependencyPrefetcher dependencyPrefetcher;
+    @Nullable
+    private final NodeExecutionTracer tracer;
     private Spec<? super Task> filter = Specs.satisfyAll();
     private int order = 0;
     private boolean continueOnFailure;
 
     private final Set<Node> filteredNodes = newIdentityHashSet();
+    private final Set<Node> prefetchedNodes = newIdentityHashSet();
     private final Set<Node> finalizers = new LinkedHashSet<>();
     private final OrdinalNodeAccess ordinalNodeAccess;
     private Consumer<LocalTaskNode> completionHandler = localTaskNode -> {
@@ -78,6 +85,20 @@ public DefaultExecutionPlan(
         ExecutionNodeAccessHierarchy outputHierarchy,
         ExecutionNodeAccessHierarchy destroyableHierarchy,
         ResourceLockCoordinationService lockCoordinator
+    ) {
+        this(displayName, taskNodeFactory, ordinalGroupFactory, dependencyResolver, outputHierarchy, destroyableHierarchy, lockCoordinator, null, null);
+    }
+
+    public DefaultExecutionPlan(
+        String displayName,
+        TaskNodeFactory taskNodeFactory,
+        OrdinalGroupFactory ordinalGroupFactory,
+        TaskDependencyResolver dependencyResolver,
+        ExecutionNodeAccessHierarchy outputHierarchy,
+        ExecutionNodeAccessHierarchy destroyableHierarchy,
+        ResourceLockCoordinationService lockCoordinator,
+        @Nullable TaskDependencyPrefetcher dependencyPrefetcher,
+        @Nullable NodeExecutionTracer tracer
     ) {
         this.displayName = displayName;
         this.taskNodeFactory = taskNodeFactory;
@@ -85,6 +106,8 @@ public DefaultExecutionPlan(
         this.outputHierarchy = outputHierarchy;
         this.destroyableHierarchy = destroyableHierarchy;
         this.lockCoordinator = lockCoordinator;
+        this.dependencyPrefetcher = dependencyPrefetcher != null && dependencyPrefetcher.isEnabled() ? dependencyPrefetcher : null;
+        this.tracer = tracer != null && tracer.isEnabled() ? tracer : null;
         this.ordinalNodeAccess = new OrdinalNodeAccess(ordinalGroupFactory);
     }
 
@@ -181,6 +204,7 @@ private void discoverNodeRelationships(LinkedList<Node> queue) {
             if (visiting.add(node)) {
                 // Have not seen this node before - add its dependencies to the head of the queue and leave this
                 // node in the queue
+                maybePrefetchDependencies(node, queue);
                 node.resolveDependencies(dependencyResolver);
                 for (Node successor : node.getHardSuccessors()) {
                     successor.maybeInheritOrdinalAsDependency(node.getGroup().asOrdinal());
@@ -207,6 +231,28 @@ private void discoverNodeRelationships(LinkedList<Node> queue) {
         }
     }
 
+    /**
+     * When the dependencies of the given node have not been prefetched, prefetches the dependencies of this node along with all other nodes in the queue that are waiting to be visited.
+     */
+    private void maybePrefetchDependencies(Node node, List<Node> queue) {
+        if (dependencyPrefetcher == null || !(node instanceof LocalTaskNode) || prefetchedNodes.contains(node)) {
+            return;
+        }
+        List<LocalTaskNode> batch = new ArrayList<>();
+        for (Node candidate : queue) {
+            if (candidate instanceof LocalTaskNode
+                && !candidate.getDependenciesProcessed()
+                && !candidate.isCannotRunInAnyPlan()
+                && nodeSatisfiesTaskFilter(candidate)
+                && prefetchedNodes.add(candidate)) {
+                batch.add((LocalTaskNode) candidate);
+            }
+        }
+        if (batch.size() > 1) {
+            dependencyPrefetcher.prefetch(batch, dependencyResolver);
+        }
+    }
+
     private boolean nodeSatisfiesTaskFilter(Node successor) {
         if (successor instanceof LocalTaskNode) {
             return filter.isSatisfiedBy(((LocalTaskNode) successor).getTask());
@@ -234,8 +280,11 @@ public FinalizedExecutionPlan finalizePlan() {
         }
         if (finalizedPlan == null) {
             dependencyResolver.clear();
+            for (Node node : scheduledNodes) {
+                node.compactEdges();
+            }
             // Should make an immutable copy of the contents to pass to the finalized plan and also to use in this instance
-            finalizedPlan = new DefaultFinalizedExecutionPlan(displayName, ordinalNodeAccess, outputHierarchy, destroyableHierarchy, lockCoordinator, scheduledNodes, continueOnFailure, this, completionHandler);
+            finalizedPlan = new DefaultFinalizedExecutionPlan(displayName, ordinalNodeAccess, outputHierarchy, destroyableHierarchy, lockCoordinator, scheduledNodes, continueOnFailure, this, completionHandler, tracer);
         }
         return finalizedPlan;
     }
@@ -256,6 +305,7 @@ public void close() {
         entryNodes.clear();
         nodeMapping.clear();
         filteredNodes.clear();
+        prefetchedNodes.clear();
         finalizers.clear();
         scheduledNodes = null;
         ordinalNodeAccess.reset();
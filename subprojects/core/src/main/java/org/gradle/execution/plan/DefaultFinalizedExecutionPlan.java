@@ -21,6 +21,7 @@
 import org.gradle.api.Action;
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.NonNullApi;
+import org.gradle.execution.plan.NodeExecutionTracer.WaitReason;
 import org.gradle.internal.MutableBoolean;
 import org.gradle.internal.Pair;
 import org.gradle.internal.resources.ResourceLock;
@@ -84,6 +85,8 @@ public int compare(Node node1, Node node2) {
     private final Map<Pair<Node, Node>, Boolean> reachableCache = new HashMap<>();
     private final OrdinalNodeAccess ordinalNodeAccess;
     private final Consumer<LocalTaskNode> completionHandler;
+    @Nullable
+    private final NodeExecutionTracer tracer;
 
     // When true, there may be nodes that are both ready and "selectable", which means their project and resources are able to be locked
     // When false, there are definitely no nodes that are "selectable"
@@ -100,7 +103,8 @@ public DefaultFinalizedExecutionPlan(
         List<Node> scheduledNodes,
         boolean continueOnFailure,
         QueryableExecutionPlan contents,
-        Consumer<LocalTaskNode> completionHandler
+        Consumer<LocalTaskNode> completionHandler,
+        @Nullable NodeExecutionTracer tracer
     ) {
         this.displayName = displayName;
         this.outputHierarchy = outputHierarchy;
@@ -110,6 +114,7 @@ public DefaultFinalizedExecutionPlan(
         this.continueOnFailure = continueOnFailure;
         this.contents = contents;
         this.completionHandler = completionHandler;
+        this.tracer = tracer;
 
         SetMultimap<FinalizerGroup, FinalizerGroup> reachableGroups = LinkedHashMultimap.create();
         for (Node node : scheduledNodes) {
@@ -121,6 +126,9 @@ public DefaultFinalizedExecutionPlan(
         for (int i = 0; i < scheduledNodes.size(); i++) {
             Node node = scheduledNodes.get(i);
             node.setIndex(i);
+            if (tracer != null) {
+                tracer.nodeScheduled(node);
+            }
             node.prepareForExecution(this::monitoredNodeReady);
             node.updateAllDependenciesComplete();
             maybeNodeReady(node);
@@ -270,6 +278,7 @@ public Selection<Node> selectNext() {
                     node.forceAllDependenciesCompleteUpdate();
                     if (!node.allDependenciesComplete()) {
                         // Some pre-execution nodes were scheduled, so try to execute them now
+                        traceWaiting(node, WaitReason.DEPENDENCIES);
                         readyNodes.removeAndRestart(node);
                         continue;
                     }
@@ -280,6 +289,9 @@ public Selection<Node> selectNext() {
                     readyNodes.remove();
                     waitingToStartNodes.remove(node);
                     node.getMutationInfo().started();
+                    if (tracer != null) {
+                        tracer.nodeStarted(node);
+                    }
                     return Selection.of(node);
                 }
             }
@@ -303,6 +315,9 @@ public Selection<Node> selectNext() {
     }
 
     private void addNodeToPlan(Node node) {
+        if (tracer != null) {
+            tracer.nodeScheduled(node);
+        }
         maybeNodeReady(node);
         maybeWaitingForNewNode(node, "runtime");
     }
@@ -337,9 +352,11 @@ private void releaseLocks(List<ResourceLock> resources) {
     private boolean tryAcquireLocksForNode(Node node, List<ResourceLock> resources) {
         if (!tryLockProjectFor(node, resources)) {
             LOGGER.debug("Cannot acquire project lock for node {}", node);
+            traceWaiting(node, WaitReason.PROJECT_LOCK);
             return false;
         } else if (!tryLockSharedResourceFor(node, resources)) {
             LOGGER.debug("Cannot acquire shared resource lock for node {}", node);
+            traceWaiting(node, WaitReason.SHARED_RESOURCE);
             return false;
         }
         return true;
@@ -348,11 +365,14 @@ private boolean tryAcquireLocksForNode(Node node, List<ResourceLock> resources)
     private boolean conflictsWithOtherNodes(Node node, MutationInfo mutations) {
         if (!canRunWithCurrentlyExecutedNodes(mutations)) {
             LOGGER.debug("Node {} cannot run with currently running nodes {}", node, runningNodes);
+            traceWaiting(node, WaitReason.INVALID_WORK);
             return true;
         } else if (mutationConflictsWithOtherNodes(node, mutations)) {
+            traceWaiting(node, WaitReason.OUTPUT_CONFLICT);
             return true;
         } else if (destroysNotYetConsumedOutputOfAnotherNode(node, mutations.destroyablePaths)) {
             LOGGER.debug("Node {} destroys not yet consumed output of another node", node);
+            traceWaiting(node, WaitReason.OUTPUT_CONFLICT);
             return true;
         }
         return false;
@@ -510,6 +530,9 @@ private void recordNodeExecutionStarted(Node node) {
 
     private void recordNodeCompleted(Node node) {
         LOGGER.debug("Node {} completed, executed: {}", node, node.isExecuted());
+        if (tracer != null) {
+            tracer.nodeCompleted(node);
+        }
         waitingToStartNodes.remove(node);
         if (continueOnFailure && !node.allDependenciesComplete()) {
             // Wait for any dependencies of this node that have not started yet
@@ -574,6 +597,7 @@ public void finishedExecuting(Node node, @Nullable Throwable failure) {
                         predecessor.addDependencySuccessor(postNode);
                         predecessor.forceAllDependenciesCompleteUpdate();
                         if (!predecessor.allDependenciesComplete()) {
+                            traceWaiting(predecessor, WaitReason.DEPENDENCIES);
                             readyNodes.removeAndRestart(predecessor);
                         }
                     }
@@ -583,13 +607,24 @@ public void finishedExecuting(Node node, @Nullable Throwable failure) {
             unlockProjectFor(node);
             unlockSharedResourcesFor(node);
             invalidNodeRunning = false;
+            if (tracer != null) {
+                tracer.runningWorkFinished();
+            }
         }
     }
 
     private void maybeNodeReady(Node node) {
         if (node.allDependenciesComplete()) {
             maybeNodesSelectable = true;
-            readyNodes.insert(node);
+            if (readyNodes.insert(node)) {
+                traceWaiting(node, WaitReason.WORKER);
+            }
+        }
+    }
+
+    private void traceWaiting(Node node, WaitReason reason) {
+        if (tracer != null) {
+            tracer.nodeWaiting(node, reason);
         }
     }
 
@@ -730,11 +765,15 @@ public void removeAndRestart(Node node) {
 
         /**
          * Insert the given node.
+         *
+         * @return true if the node was not already present.
          */
-        public void insert(Node node) {
+        public boolean insert(Node node) {
             if (nodes.add(node)) {
                 current = null;
+                return true;
             }
+            return false;
         }
     }
 
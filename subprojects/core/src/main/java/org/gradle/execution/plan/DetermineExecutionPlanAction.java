@@ -18,7 +18,6 @@
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.gradle.api.CircularReferenceException;
 import org.gradle.api.GradleException;
@@ -262,10 +261,7 @@ private void restorePath(Deque<Node> path, GraphEdge toBeRemoved) {
     }
 
     private void removeShouldRunAfterSuccessorsIfTheyImposeACycle(TaskNode node, int visitingSegment) {
-        Iterables.removeIf(
-            node.getShouldSuccessors(),
-            input -> visitingNodes.containsEntry(input, visitingSegment)
-        );
+        node.removeShouldSuccessors(input -> visitingNodes.containsEntry(input, visitingSegment));
     }
 
     private void takePlanSnapshotIfCanBeRestoredToCurrentTask(Map<Node, Integer> planBeforeVisiting, TaskNode node) {
@@ -16,6 +16,7 @@
 
 package org.gradle.execution.plan;
 
+import com.google.common.collect.ImmutableList;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.internal.TaskInternal;
 import org.gradle.api.internal.file.FileCollectionFactory;
@@ -114,10 +115,24 @@ public Throwable getNodeFailure() {
         return task.getState().getFailure();
     }
 
+    /**
+     * Makes sure the task has been configured, so that its dependency declarations can be visited.
+     */
+    void prepareForDependencyResolution() {
+        taskProject.getTasks().prepareForExecution(task);
+    }
+
+    /**
+     * Returns the dependency declarations of the task, in the order they are resolved by {@link #resolveDependencies(TaskDependencyResolver)}.
+     */
+    List<Object> getDependencyDeclarations() {
+        return ImmutableList.of(task.getTaskDependencies(), task.getLifecycleDependencies(), task.getFinalizedBy(), task.getMustRunAfter(), task.getShouldRunAfter());
+    }
+
     @Override
     public void resolveDependencies(TaskDependencyResolver dependencyResolver) {
         // Make sure it has been configured
-        taskProject.getTasks().prepareForExecution(task);
+        prepareForDependencyResolution();
 
         for (Node targetNode : getDependencies(dependencyResolver)) {
             addDependencySuccessor(targetNode);
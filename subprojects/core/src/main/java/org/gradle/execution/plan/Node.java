@@ -397,6 +397,16 @@ protected void updateDependencyNodes(DependencyNodesSet newDependencies) {
         dependencyNodes = newDependencies;
     }
 
+    /**
+     * Called once the plan containing this node has been calculated, to replace the sets used to build up the edges of this node with more compact representations.
+     * Edges can still be added after this method has been called.
+     */
+    @OverridingMethodsMustInvokeSuper
+    public void compactEdges() {
+        dependencyNodes.compact();
+        dependentNodes.compact();
+    }
+
     /**
      * Called when a node that this node may be waiting for has completed.
      */
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.StartParameter;
+import org.gradle.api.NonNullApi;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.buildoption.InternalOption;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.buildoption.StringInternalOption;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.service.scopes.Scopes;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records a timeline of the scheduling of each node in the execution plans of a build tree, and writes it out in the Chrome trace event format
+ * when the build tree finishes. The file can be opened in Perfetto or {@code chrome://tracing}.
+ *
+ * <p>For each node, the trace includes when the node was scheduled, each period during which the node was waiting to start along with the {@link WaitReason}, and when and on which
+ * worker thread the node executed. Events are only recorded when the state of a node changes, and all events are recorded while holding the state lock.</p>
+ */
+@NonNullApi
+@ServiceScope(Scopes.BuildTree.class)
+public class NodeExecutionTracer implements Stoppable {
+    public static final InternalOption<String> TRACE_FILE = new StringInternalOption("org.gradle.internal.executor.trace", "");
+
+    private static final Logger LOGGER = Logging.getLogger(NodeExecutionTracer.class);
+
+    /**
+     * The reasons a scheduled node may be waiting to start.
+     */
+    public enum WaitReason {
+        DEPENDENCIES("waiting for dependencies"),
+        WORKER("waiting for a worker"),
+        PROJECT_LOCK("waiting for project lock"),
+        SHARED_RESOURCE("waiting for shared resource"),
+        OUTPUT_CONFLICT("waiting for conflicting work"),
+        INVALID_WORK("waiting for invalid work");
+
+        private final String displayName;
+
+        WaitReason(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Whether the node is ready to start but is held back by a lock or by other running nodes, which may change whenever a node completes.
+         */
+        boolean isBlockedByRunningWork() {
+            return this != DEPENDENCIES && this != WORKER;
+        }
+    }
+
+    @Nullable
+    private final File traceFile;
+    private final long startTime = System.nanoTime();
+    private final Map<Node, NodeTrace> nodes = new IdentityHashMap<>();
+    private final Map<Long, String> threads = new LinkedHashMap<>();
+    private final List<TraceEvent> events = new ArrayList<>();
+    private final Map<WaitReason, Long> totalWaitTime = new EnumMap<>(WaitReason.class);
+    private final Set<NodeTrace> blockedByRunningWork = new LinkedHashSet<>();
+    private long nextId = 1;
+
+    public NodeExecutionTracer(InternalOptions internalOptions, StartParameter startParameter) {
+        String path = internalOptions.getOption(TRACE_FILE).get();
+        if (path.isEmpty()) {
+            traceFile = null;
+        } else {
+            File file = new File(path);
+            traceFile = file.isAbsolute() ? file : new File(startParameter.getCurrentDir(), path);
+        }
+    }
+
+    @VisibleForTesting
+    NodeExecutionTracer(@Nullable File traceFile) {
+        this.traceFile = traceFile;
+    }
+
+    public boolean isEnabled() {
+        return traceFile != null;
+    }
+
+    /**
+     * Called when the node is added to an execution plan that is about to start running.
+     */
+    public synchronized void nodeScheduled(Node node) {
+        if (!nodes.containsKey(node)) {
+            NodeTrace trace = new NodeTrace(nextId++, node.toString(), now());
+            nodes.put(node, trace);
+            trace.waitingFor(WaitReason.DEPENDENCIES, trace.scheduled);
+        }
+    }
+
+    /**
+     * Called when the node is waiting to start for the given reason.
+     */
+    public synchronized void nodeWaiting(Node node, WaitReason reason) {
+        NodeTrace trace = nodes.get(node);
+        if (trace != null && trace.executionStarted < 0) {
+            trace.waitingFor(reason, now());
+        }
+    }
+
+    /**
+     * Called when the node has started executing on the current thread.
+     */
+    public synchronized void nodeStarted(Node node) {
+        NodeTrace trace = nodes.get(node);
+        if (trace != null) {
+            long now = now();
+            trace.finishWaiting(now);
+            trace.executionStarted = now;
+            Thread thread = Thread.currentThread();
+            trace.threadId = thread.getId();
+            threads.putIfAbsent(thread.getId(), thread.getName());
+        }
+    }
+
+    /**
+     * Called when a node has finished executing and released its locks. Nodes that were held back by locks or by other running nodes
+     * are then waiting for a worker to attempt to start them again. When they are still held back, they are reported as waiting again.
+     */
+    public synchronized void runningWorkFinished() {
+        if (blockedByRunningWork.isEmpty()) {
+            return;
+        }
+        long now = now();
+        for (NodeTrace trace : new ArrayList<>(blockedByRunningWork)) {
+            trace.waitingFor(WaitReason.WORKER, now);
+        }
+    }
+
+    /**
+     * Called when the node has completed, whether it was executed or not.
+     */
+    public synchronized void nodeCompleted(Node node) {
+        NodeTrace trace = nodes.remove(node);
+        if (trace != null) {
+            trace.finish(now());
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - startTime;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (traceFile == null) {
+            return;
+        }
+        long now = now();
+        for (NodeTrace trace : nodes.values()) {
+            trace.finish(now);
+        }
+        nodes.clear();
+        blockedByRunningWork.clear();
+        try {
+            write(traceFile);
+            LOGGER.info("Node execution trace written to {}", traceFile);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write node execution trace to {}.", traceFile, e);
+        }
+        for (Map.Entry<WaitReason, Long> entry : totalWaitTime.entrySet()) {
+            LOGGER.info("total time {}: {}ms", entry.getKey().getDisplayName(), entry.getValue() / 1000000);
+        }
+        events.clear();
+        threads.clear();
+        totalWaitTime.clear();
+    }
+
+    private void write(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\"traceEvents\":[\n");
+            writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Gradle execution\"}}");
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                writer.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getKey() + ",\"args\":{\"name\":" + quote(thread.getValue()) + "}}");
+            }
+            for (TraceEvent event : events) {
+                writer.write(",\n");
+                event.writeTo(writer);
+            }
+            writer.write("\n]}\n");
+        }
+    }
+
+    @VisibleForTesting
+    static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                builder.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                builder.append(String.format("\\u%04x", (int) ch));
+            } else {
+                builder.append(ch);
+            }
+        }
+        builder.append('"');
+        return builder.toString();
+    }
+
+    private class NodeTrace {
+        final long id;
+        final String name;
+        final long scheduled;
+        final List<TraceEvent> waits = new ArrayList<>();
+        @Nullable
+        WaitReason waitReason;
+        long waitStarted;
+        long executionStarted = -1;
+        long threadId;
+
+        NodeTrace(long id, String name, long scheduled) {
+            this.id = id;
+            this.name = name;
+            this.scheduled = scheduled;
+        }
+
+        void waitingFor(WaitReason reason, long now) {
+            if (reason == waitReason) {
+                return;
+            }
+            finishWaiting(now);
+            waitReason = reason;
+            waitStarted = now;
+            if (reason.isBlockedByRunningWork()) {
+                blockedByRunningWork.add(this);
+            }
+        }
+
+        void finishWaiting(long now) {
+            if (waitReason != null && now > waitStarted) {
+                waits.add(new WaitEvent(id, waitReason.getDisplayName(), name, waitStarted, now));
+                totalWaitTime.merge(waitReason, now - waitStarted, Long::sum);
+            }
+            waitReason = null;
+            blockedByRunningWork.remove(this);
+        }
+
+        void finish(long now) {
+            finishWaiting(now);
+            if (executionStarted >= 0) {
+                // The outer span covers the time from being scheduled to starting execution, and contains the wait spans
+                events.add(new WaitEvent(id, name, name, scheduled, executionStarted));
+                events.addAll(waits);
+                events.add(new ExecuteEvent(name, threadId, executionStarted, now));
+            } else {
+                events.add(new WaitEvent(id, name + " (did not execute)", name, scheduled, now));
+                events.addAll(waits);
+            }
+        }
+    }
+
+    private interface TraceEvent {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private static String micros(long nanos) {
+        return String.valueOf(nanos / 1000);
+    }
+
+    /**
+     * A span on the wait track for a node, represented as a pair of nestable async events.
+     */
+    private static class WaitEvent implements TraceEvent {
+        private final long id;
+        private final String name;
+        private final String node;
+        private final long start;
+        private final long end;
+
+        WaitEvent(long id, String name, String node, long start, long end) {
+            this.id = id;
+            this.name = name;
+            this.node = node;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void writeTo(Writer writer) throws IOException {
+            String common = "\"cat\":\"node\",\"id\":" + id + ",\"pid\":1,\"name\":" + quote(name);
+            writer.write("{\"ph\":\"b\"," + common + ",\"ts\":" + micros(start) + ",\"args\":{\"node\":" + quote(node) + "}},\n");
+            writer.write("{\"ph\":\"e\"," + common + ",\"ts\":" + micros(end) + "}");
+        }
+    }
+
+    /**
+     * A span on the worker thread that executed a node.
+     */
+    private static class ExecuteEvent implements TraceEvent {
+        private final String name;
+        private final long threadId;
+        private final long start;
+        private final long end;
+
+        ExecuteEvent(String name, long threadId, long start, long end) {
+            this.name = name;
+            this.threadId = threadId;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void writeTo(Writer writer) throws IOException {
+            writer.write("{\"ph\":\"X\",\"cat\":\"execute\",\"pid\":1,\"tid\":" + threadId + ",\"name\":" + quote(name)
+                + ",\"ts\":" + micros(start) + ",\"dur\":" + micros(end - start) + "}");
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.gradle.execution.plan;
 
+import com.google.common.collect.ImmutableSortedSet;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NavigableSet;
@@ -28,6 +30,29 @@ public static NavigableSet<Node> newSortedNodeSet() {
         return new TreeSet<>(NodeComparator.INSTANCE);
     }
 
+    /**
+     * Returns an array-backed, immutable copy of the given set that retains the iteration order and comparator of the original set.
+     * Returns the set itself when it is already compact.
+     */
+    public static NavigableSet<Node> compactSortedNodeSet(NavigableSet<Node> nodes) {
+        if (nodes instanceof ImmutableSortedSet) {
+            return nodes;
+        }
+        return ImmutableSortedSet.copyOfSorted(nodes);
+    }
+
+    /**
+     * Returns a mutable set containing the given nodes. Returns the set itself when it is already mutable.
+     */
+    public static NavigableSet<Node> mutableSortedNodeSet(NavigableSet<Node> nodes) {
+        if (nodes instanceof ImmutableSortedSet) {
+            NavigableSet<Node> copy = newSortedNodeSet();
+            copy.addAll(nodes);
+            return copy;
+        }
+        return nodes;
+    }
+
     public static List<Node> sortedListOf(Set<Node> nodes) {
         List<Node> sorted = new ArrayList<>(nodes);
         sorted.sort(NodeComparator.INSTANCE);
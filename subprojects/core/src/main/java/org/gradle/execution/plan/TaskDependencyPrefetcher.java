@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.gradle.api.NonNullApi;
+import org.gradle.api.internal.project.ProjectState;
+import org.gradle.api.internal.tasks.CachingTaskDependencyResolveContext;
+import org.gradle.api.internal.tasks.TaskDependencyResolveException;
+import org.gradle.api.internal.tasks.WorkDependencyResolver;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
+import org.gradle.internal.service.scopes.Scopes;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Discovers the dependencies of a batch of tasks concurrently, ahead of the single-threaded traversal in {@link DefaultExecutionPlan}.
+ *
+ * <p>The tasks are grouped by owning project and the dependency declarations of each group are visited while holding the lock for that project.
+ * Visiting a declaration runs any user code required to calculate it, such as evaluating providers or visiting artifact sets, and produces the
+ * objects that the declaration ultimately refers to. These are handed over to the {@link TaskDependencyResolver}, which converts them to nodes as the
+ * plan is built. This means that the nodes and edges of the plan are created in the same order as without prefetching, regardless of how the
+ * concurrent work is scheduled.</p>
+ *
+ * <p>A declaration that fails to be visited with a {@link TaskDependencyResolveException} is simply not prefetched, so that the failure is reported by the
+ * single-threaded traversal as usual. Any other failure fails the build.</p>
+ *
+ * <p>This is an opt-in feature, as it assumes that calculating the dependencies of a task does not change the dependencies of tasks in other projects.</p>
+ */
+@NonNullApi
+@ServiceScope(Scopes.Build.class)
+public class TaskDependencyPrefetcher {
+    public static final InternalFlag PARALLEL_DISCOVERY = new InternalFlag("org.gradle.internal.tasks.parallel-discovery");
+    private static final Logger LOGGER = Logging.getLogger(TaskDependencyPrefetcher.class);
+
+    private static final WorkDependencyResolver<Object> COLLECT_UNRESOLVED = (task, node, resolveAction) -> {
+        resolveAction.execute(node);
+        return true;
+    };
+
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectLeaseRegistry projectLeaseRegistry;
+    private final boolean enabled;
+
+    public TaskDependencyPrefetcher(BuildOperationExecutor buildOperationExecutor, ProjectLeaseRegistry projectLeaseRegistry, InternalOptions internalOptions) {
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectLeaseRegistry = projectLeaseRegistry;
+        this.enabled = internalOptions.getOption(PARALLEL_DISCOVERY).get();
+    }
+
+    /**
+     * Returns true when prefetching can do any work concurrently.
+     */
+    public boolean isEnabled() {
+        return enabled && projectLeaseRegistry.getAllowsParallelExecution();
+    }
+
+    /**
+     * Visits the dependency declarations of the given nodes and makes the results available to the given resolver.
+     */
+    public void prefetch(Collection<LocalTaskNode> nodes, TaskDependencyResolver dependencyResolver) {
+        Map<ProjectState, List<LocalTaskNode>> nodesByProject = new LinkedHashMap<>();
+        for (LocalTaskNode node : nodes) {
+            nodesByProject.computeIfAbsent(node.getOwningProject().getOwner(), p -> new ArrayList<>()).add(node);
+        }
+        if (nodesByProject.size() < 2) {
+            // Nothing to do concurrently
+            return;
+        }
+
+        List<PrefetchProjectDependencies> operations = new ArrayList<>(nodesByProject.size());
+        for (Map.Entry<ProjectState, List<LocalTaskNode>> entry : nodesByProject.entrySet()) {
+            operations.add(new PrefetchProjectDependencies(entry.getKey(), entry.getValue()));
+        }
+        buildOperationExecutor.runAllWithAccessToProjectState(queue -> {
+            for (PrefetchProjectDependencies operation : operations) {
+                queue.add(operation);
+            }
+        });
+
+        // Merge the results in a deterministic order
+        for (PrefetchProjectDependencies operation : operations) {
+            for (Map.Entry<Object, Set<Object>> entry : operation.results.entrySet()) {
+                dependencyResolver.addPrefetchedDependencies(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static class PrefetchProjectDependencies implements RunnableBuildOperation {
+        private final ProjectState project;
+        private final List<LocalTaskNode> nodes;
+        private final Map<Object, Set<Object>> results = new IdentityHashMap<>();
+
+        public PrefetchProjectDependencies(ProjectState project, List<LocalTaskNode> nodes) {
+            this.project = project;
+            this.nodes = nodes;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            CachingTaskDependencyResolveContext<Object> resolveContext = new CachingTaskDependencyResolveContext<>(Collections.singletonList(COLLECT_UNRESOLVED));
+            project.applyToMutableState(p -> {
+                for (LocalTaskNode node : nodes) {
+                    node.prepareForDependencyResolution();
+                    for (Object dependencies : node.getDependencyDeclarations()) {
+                        try {
+                            results.put(dependencies, resolveContext.getDependencies(node.getTask(), dependencies));
+                        } catch (TaskDependencyResolveException e) {
+                            // The failure will be reported when the dependencies are resolved
+                            LOGGER.debug("Could not prefetch dependencies of {}.", node, e);
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Discover task dependencies for " + project.getDisplayName().getDisplayName());
+        }
+    }
+}
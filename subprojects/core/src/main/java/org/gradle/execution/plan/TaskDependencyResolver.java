@@ -19,17 +19,21 @@
 import org.gradle.api.NonNullApi;
 import org.gradle.api.internal.TaskInternal;
 import org.gradle.api.internal.tasks.CachingTaskDependencyResolveContext;
+import org.gradle.api.internal.tasks.TaskDependencyContainer;
 import org.gradle.internal.service.scopes.Scopes;
 import org.gradle.internal.service.scopes.ServiceScope;
 
 import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @NonNullApi
 @ServiceScope(Scopes.Build.class)
 public class TaskDependencyResolver {
     private final List<DependencyResolver> dependencyResolvers;
+    private final Map<Object, Set<Object>> prefetchedDependencies = new IdentityHashMap<>();
     private CachingTaskDependencyResolveContext<Node> context;
 
     public TaskDependencyResolver(List<DependencyResolver> dependencyResolvers) {
@@ -39,13 +43,31 @@ public TaskDependencyResolver(List<DependencyResolver> dependencyResolvers) {
 
     public void clear() {
         context = createTaskDependencyResolverContext(dependencyResolvers);
+        prefetchedDependencies.clear();
     }
 
     private static CachingTaskDependencyResolveContext<Node> createTaskDependencyResolverContext(List<DependencyResolver> workResolvers) {
         return new CachingTaskDependencyResolveContext<Node>(workResolvers);
     }
 
+    /**
+     * Records the objects that the given dependency declaration refers to, as calculated by {@link TaskDependencyPrefetcher}.
+     * The next call to {@link #resolveDependenciesFor(TaskInternal, Object)} for the declaration will resolve these objects rather than visit the declaration again.
+     */
+    public void addPrefetchedDependencies(Object dependencies, Set<Object> unresolvedDependencies) {
+        prefetchedDependencies.put(dependencies, unresolvedDependencies);
+    }
+
     public Set<Node> resolveDependenciesFor(@Nullable TaskInternal task, Object dependencies) {
+        Set<Object> unresolvedDependencies = prefetchedDependencies.remove(dependencies);
+        if (unresolvedDependencies != null) {
+            TaskDependencyContainer prefetched = context -> {
+                for (Object dependency : unresolvedDependencies) {
+                    context.add(dependency);
+                }
+            };
+            return context.getDependencies(task, prefetched);
+        }
         return context.getDependencies(task, dependencies);
     }
 }
@@ -22,12 +22,15 @@
 
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.function.Predicate;
 
+import static org.gradle.execution.plan.NodeSets.compactSortedNodeSet;
+import static org.gradle.execution.plan.NodeSets.mutableSortedNodeSet;
 import static org.gradle.execution.plan.NodeSets.newSortedNodeSet;
 
 public abstract class TaskNode extends Node {
-    private final NavigableSet<Node> shouldSuccessors = newSortedNodeSet();
-    private final NavigableSet<Node> finalizingSuccessors = newSortedNodeSet();
+    private NavigableSet<Node> shouldSuccessors = newSortedNodeSet();
+    private NavigableSet<Node> finalizingSuccessors = newSortedNodeSet();
 
     @Override
     protected void nodeSpecificHealthDiagnostics(StringBuilder builder) {
@@ -60,19 +63,34 @@ public void addMustSuccessor(Node toNode) {
     }
 
     public void addFinalizingSuccessor(Node finalized) {
+        finalizingSuccessors = mutableSortedNodeSet(finalizingSuccessors);
         finalizingSuccessors.add(finalized);
         finalized.addFinalizer(this);
     }
 
     public void addShouldSuccessor(Node toNode) {
         deprecateLifecycleHookReferencingNonLocalTask("shouldRunAfter", toNode);
+        shouldSuccessors = mutableSortedNodeSet(shouldSuccessors);
         shouldSuccessors.add(toNode);
     }
 
     public void removeShouldSuccessor(TaskNode toNode) {
+        shouldSuccessors = mutableSortedNodeSet(shouldSuccessors);
         shouldSuccessors.remove(toNode);
     }
 
+    public void removeShouldSuccessors(Predicate<? super Node> predicate) {
+        shouldSuccessors = mutableSortedNodeSet(shouldSuccessors);
+        shouldSuccessors.removeIf(predicate);
+    }
+
+    @Override
+    public void compactEdges() {
+        super.compactEdges();
+        shouldSuccessors = compactSortedNodeSet(shouldSuccessors);
+        finalizingSuccessors = compactSortedNodeSet(finalizingSuccessors);
+    }
+
     @Override
     public Iterable<Node> getAllSuccessors() {
         return Iterables.concat(
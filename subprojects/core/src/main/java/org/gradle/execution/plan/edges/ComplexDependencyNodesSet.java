@@ -20,11 +20,13 @@
 
 import java.util.NavigableSet;
 
+import static org.gradle.execution.plan.NodeSets.compactSortedNodeSet;
+import static org.gradle.execution.plan.NodeSets.mutableSortedNodeSet;
 import static org.gradle.execution.plan.NodeSets.newSortedNodeSet;
 
 public class ComplexDependencyNodesSet implements DependencyNodesSet {
     private final DependencySuccessorsOnlyNodeSet delegate;
-    private final NavigableSet<Node> orderedMustSuccessors = newSortedNodeSet();
+    private NavigableSet<Node> orderedMustSuccessors = newSortedNodeSet();
 
     public ComplexDependencyNodesSet(DependencySuccessorsOnlyNodeSet delegate) {
         this.delegate = delegate;
@@ -48,6 +50,7 @@ public NavigableSet<Node> getMustSuccessors() {
 
     @Override
     public DependencyNodesSet addMustSuccessor(Node toNode) {
+        orderedMustSuccessors = mutableSortedNodeSet(orderedMustSuccessors);
         orderedMustSuccessors.add(toNode);
         return this;
     }
@@ -80,4 +83,10 @@ public void healthDiagnostics(StringBuilder builder) {
             builder.append(", must-run-after=").append(Node.formatNodes(orderedMustSuccessors));
         }
     }
+
+    @Override
+    public void compact() {
+        delegate.compact();
+        orderedMustSuccessors = compactSortedNodeSet(orderedMustSuccessors);
+    }
 }
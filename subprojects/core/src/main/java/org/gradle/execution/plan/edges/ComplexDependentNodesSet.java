@@ -19,14 +19,15 @@
 import org.gradle.execution.plan.Node;
 import org.gradle.execution.plan.NodeSets;
 
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.function.Consumer;
 
 class ComplexDependentNodesSet implements DependentNodesSet {
     private final DependencyPredecessorsOnlyNodeSet dependencyPredecessors;
-    private final SortedSet<Node> mustPredecessors = NodeSets.newSortedNodeSet();
-    private final SortedSet<Node> finalizers = NodeSets.newSortedNodeSet();
+    private NavigableSet<Node> mustPredecessors = NodeSets.newSortedNodeSet();
+    private NavigableSet<Node> finalizers = NodeSets.newSortedNodeSet();
 
     public ComplexDependentNodesSet(DependencyPredecessorsOnlyNodeSet dependencyPredecessors) {
         this.dependencyPredecessors = dependencyPredecessors;
@@ -50,6 +51,7 @@ public SortedSet<Node> getFinalizers() {
 
     @Override
     public DependentNodesSet addFinalizer(Node finalizer) {
+        finalizers = NodeSets.mutableSortedNodeSet(finalizers);
         finalizers.add(finalizer);
         return this;
     }
@@ -61,6 +63,7 @@ public Set<Node> getMustPredecessors() {
 
     @Override
     public DependentNodesSet addMustPredecessor(Node fromNode) {
+        mustPredecessors = NodeSets.mutableSortedNodeSet(mustPredecessors);
         mustPredecessors.add(fromNode);
         return this;
     }
@@ -75,4 +78,11 @@ public void visitAllNodes(Consumer<Node> visitor) {
             node.getFinalizerGroup().visitAllMembers(visitor);
         }
     }
+
+    @Override
+    public void compact() {
+        dependencyPredecessors.compact();
+        mustPredecessors = NodeSets.compactSortedNodeSet(mustPredecessors);
+        finalizers = NodeSets.compactSortedNodeSet(finalizers);
+    }
 }
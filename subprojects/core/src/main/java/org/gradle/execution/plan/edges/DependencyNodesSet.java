@@ -56,6 +56,10 @@ public Node.DependenciesState getState(Node node) {
         public void healthDiagnostics(StringBuilder builder) {
             builder.append("no dependencies");
         }
+
+        @Override
+        public void compact() {
+        }
     };
 
     NavigableSet<Node> getDependencySuccessors();
@@ -71,4 +75,10 @@ public void healthDiagnostics(StringBuilder builder) {
     Node.DependenciesState getState(Node node);
 
     void healthDiagnostics(StringBuilder builder);
+
+    /**
+     * Called once the plan containing the node has been calculated, to release any memory used to efficiently build up this set.
+     * The set may still be modified afterwards, at some additional cost.
+     */
+    void compact();
 }
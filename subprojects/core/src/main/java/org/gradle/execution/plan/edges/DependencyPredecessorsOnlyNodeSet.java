@@ -19,6 +19,7 @@
 import org.gradle.execution.plan.Node;
 import org.gradle.execution.plan.NodeSets;
 
+import java.util.NavigableSet;
 import java.util.SortedSet;
 import java.util.function.Consumer;
 
@@ -26,7 +27,7 @@
  * Only incoming dependencies, no incoming must-run-after or finalizes relationships.
  */
 class DependencyPredecessorsOnlyNodeSet implements DependentNodesSet {
-    private final SortedSet<Node> dependencyPredecessors = NodeSets.newSortedNodeSet();
+    private NavigableSet<Node> dependencyPredecessors = NodeSets.newSortedNodeSet();
 
     @Override
     public SortedSet<Node> getDependencyPredecessors() {
@@ -35,6 +36,7 @@ public SortedSet<Node> getDependencyPredecessors() {
 
     @Override
     public DependentNodesSet addDependencyPredecessors(Node fromNode) {
+        dependencyPredecessors = NodeSets.mutableSortedNodeSet(dependencyPredecessors);
         dependencyPredecessors.add(fromNode);
         return this;
     }
@@ -55,4 +57,9 @@ public void visitAllNodes(Consumer<Node> visitor) {
             visitor.accept(node);
         }
     }
+
+    @Override
+    public void compact() {
+        dependencyPredecessors = NodeSets.compactSortedNodeSet(dependencyPredecessors);
+    }
 }
@@ -24,6 +24,8 @@
 import java.util.NavigableSet;
 import java.util.Set;
 
+import static org.gradle.execution.plan.NodeSets.compactSortedNodeSet;
+import static org.gradle.execution.plan.NodeSets.mutableSortedNodeSet;
 import static org.gradle.execution.plan.NodeSets.newSortedNodeSet;
 
 /**
@@ -32,7 +34,7 @@
  * <p>Attempts to efficiently determine whether a node can start or not based on the state of its dependencies, by tracking those dependencies that are still to complete.</p>
  */
 public class DependencySuccessorsOnlyNodeSet implements DependencyNodesSet {
-    private final NavigableSet<Node> orderedDependencies = newSortedNodeSet();
+    private NavigableSet<Node> orderedDependencies = newSortedNodeSet();
     private Set<Node> waitingFor;
     private boolean nodeCannotStart;
     private boolean pruned;
@@ -44,6 +46,7 @@ public NavigableSet<Node> getDependencySuccessors() {
 
     @Override
     public DependencySuccessorsOnlyNodeSet addDependency(Node node) {
+        orderedDependencies = mutableSortedNodeSet(orderedDependencies);
         orderedDependencies.add(node);
         if (waitingFor == null) {
             waitingFor = new HashSet<>();
@@ -107,6 +110,14 @@ public void healthDiagnostics(StringBuilder builder) {
         builder.append(", has-failed-dependency=").append(nodeCannotStart);
     }
 
+    @Override
+    public void compact() {
+        orderedDependencies = compactSortedNodeSet(orderedDependencies);
+        if (waitingFor != null && waitingFor.isEmpty()) {
+            waitingFor = null;
+        }
+    }
+
     private void discardCompletedNodes(Node node) {
         if (waitingFor != null) {
             Iterator<Node> iterator = waitingFor.iterator();
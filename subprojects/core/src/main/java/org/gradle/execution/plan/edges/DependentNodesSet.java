@@ -47,6 +47,10 @@ public DependentNodesSet addMustPredecessor(Node fromNode) {
         @Override
         public void visitAllNodes(Consumer<Node> visitor) {
         }
+
+        @Override
+        public void compact() {
+        }
     };
 
     /**
@@ -75,4 +79,10 @@ default Set<Node> getMustPredecessors() {
      * Should visit the nodes in a deterministic order, but the order can be whatever best makes sense for the node implementation.
      */
     void visitAllNodes(Consumer<Node> visitor);
+
+    /**
+     * Called once the plan containing the node has been calculated, to release any memory used to efficiently build up this set.
+     * The set may still be modified afterwards, at some additional cost.
+     */
+    void compact();
 }
@@ -29,6 +29,7 @@ public class BuildModelParameters {
     private final boolean intermediateModelCache;
     private final boolean parallelToolingApiActions;
     private final boolean invalidateCoupledProjects;
+    private final boolean parallelProjectConfiguration;
     private final LogLevel configurationCacheLogLevel;
 
     public BuildModelParameters(
@@ -39,6 +40,7 @@ public BuildModelParameters(
         boolean intermediateModelCache,
         boolean parallelToolingApiActions,
         boolean invalidateCoupledProjects,
+        boolean parallelProjectConfiguration,
         LogLevel configurationCacheLogLevel
     ) {
         this.configureOnDemand = configureOnDemand;
@@ -48,6 +50,7 @@ public BuildModelParameters(
         this.intermediateModelCache = intermediateModelCache;
         this.parallelToolingApiActions = parallelToolingApiActions;
         this.invalidateCoupledProjects = invalidateCoupledProjects;
+        this.parallelProjectConfiguration = parallelProjectConfiguration;
         this.configurationCacheLogLevel = configurationCacheLogLevel;
     }
 
@@ -98,4 +101,12 @@ public boolean isParallelToolingApiActions() {
     public boolean isInvalidateCoupledProjects() {
         return invalidateCoupledProjects;
     }
+
+    /**
+     * When {@link  #isIsolatedProjects()} is true, should all projects be configured up-front, with decoupled projects configured concurrently?
+     * This is currently opt-in and only applies when running tasks.
+     */
+    public boolean isParallelProjectConfiguration() {
+        return parallelProjectConfiguration;
+    }
 }
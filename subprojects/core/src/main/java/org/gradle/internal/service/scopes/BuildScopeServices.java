@@ -105,7 +105,9 @@
 import org.gradle.execution.plan.DefaultNodeValidator;
 import org.gradle.execution.plan.ExecutionNodeAccessHierarchies;
 import org.gradle.execution.plan.ExecutionPlanFactory;
+import org.gradle.execution.plan.NodeExecutionTracer;
 import org.gradle.execution.plan.OrdinalGroupFactory;
+import org.gradle.execution.plan.TaskDependencyPrefetcher;
 import org.gradle.execution.plan.TaskDependencyResolver;
 import org.gradle.execution.plan.TaskNodeDependencyResolver;
 import org.gradle.execution.plan.TaskNodeFactory;
@@ -241,6 +243,7 @@ public BuildScopeServices(ServiceRegistry parent, BuildModelControllerServices.S
             registration.add(TaskNodeDependencyResolver.class);
             registration.add(WorkNodeDependencyResolver.class);
             registration.add(TaskDependencyResolver.class);
+            registration.add(TaskDependencyPrefetcher.class);
             registration.add(DefaultBuildWorkGraphController.class);
             registration.add(DefaultBuildIncluder.class);
             registration.add(DefaultScriptClassPathResolver.class);
@@ -262,7 +265,9 @@ ExecutionPlanFactory createExecutionPlanFactory(
         OrdinalGroupFactory ordinalGroupFactory,
         TaskDependencyResolver dependencyResolver,
         ExecutionNodeAccessHierarchies executionNodeAccessHierarchies,
-        ResourceLockCoordinationService lockCoordinationService
+        ResourceLockCoordinationService lockCoordinationService,
+        TaskDependencyPrefetcher dependencyPrefetcher,
+        NodeExecutionTracer tracer
     ) {
         return new ExecutionPlanFactory(
             build.getDisplayName().getDisplayName(),
@@ -271,7 +276,9 @@ ExecutionPlanFactory createExecutionPlanFactory(
             dependencyResolver,
             executionNodeAccessHierarchies.getOutputHierarchy(),
             executionNodeAccessHierarchies.getDestroyableHierarchy(),
-            lockCoordinationService
+            lockCoordinationService,
+            dependencyPrefetcher,
+            tracer
         );
     }
 
@@ -25,6 +25,7 @@
 import org.gradle.configuration.internal.DefaultUserCodeApplicationContext;
 import org.gradle.configuration.internal.ListenerBuildOperationDecorator;
 import org.gradle.configuration.internal.UserCodeApplicationContext;
+import org.gradle.internal.buildoption.DefaultInternalOptions;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.DefaultParallelismConfiguration;
 import org.gradle.internal.concurrent.ExecutorFactory;
@@ -48,8 +49,10 @@
 import org.gradle.internal.service.scopes.Scopes;
 import org.gradle.internal.service.scopes.ServiceScope;
 import org.gradle.internal.time.Clock;
+import org.gradle.internal.work.AdaptiveWorkerLeaseController;
 import org.gradle.internal.work.DefaultWorkerLeaseService;
 import org.gradle.internal.work.WorkerLeaseService;
+import org.gradle.process.internal.health.memory.MemoryManager;
 
 import java.io.Closeable;
 
@@ -75,6 +78,7 @@ public CrossBuildSessionState(ServiceRegistry parent, StartParameter startParame
             .build();
         // Trigger listener to wire itself in
         services.get(BuildOperationTrace.class);
+        services.get(AdaptiveWorkerLeaseController.class);
     }
 
     public ServiceRegistry getServices() {
@@ -108,6 +112,11 @@ ParallelismConfiguration createParallelismConfiguration() {
             return new DefaultParallelismConfiguration(startParameter.isParallelProjectExecutionEnabled(), startParameter.getMaxWorkerCount());
         }
 
+        AdaptiveWorkerLeaseController createAdaptiveWorkerLeaseController(DefaultWorkerLeaseService workerLeaseService, MemoryManager memoryManager, Clock clock) {
+            boolean enabled = new DefaultInternalOptions(startParameter.getSystemPropertiesArgs()).getOption(AdaptiveWorkerLeaseController.ADAPTIVE_WORKERS).get();
+            return new AdaptiveWorkerLeaseController(enabled, workerLeaseService, memoryManager, clock);
+        }
+
         BuildOperationExecutor createBuildOperationExecutor(
             Clock clock,
             ProgressLoggerFactory progressLoggerFactory,
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.time.Clock;
+import org.gradle.process.internal.health.memory.MemoryManager;
+import org.gradle.process.internal.health.memory.OsMemoryStatus;
+import org.gradle.process.internal.health.memory.OsMemoryStatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Grows or shrinks the number of worker leases that can be granted by {@link DefaultWorkerLeaseService}, based on the load of the machine.
+ *
+ * <p>The limit is re-evaluated each time the {@link MemoryManager} publishes a new OS memory snapshot. The limit is reduced by one lease when free physical memory is low,
+ * when the system load is well above the number of available processors, or when this JVM spends a large fraction of its time collecting garbage. It is increased by one
+ * lease, up to the configured maximum worker count, when all of these are comfortably below their thresholds. Leases that are already held are never revoked.</p>
+ *
+ * <p>Each change to the limit is logged, and a summary of the limits used is logged when the controller is stopped.</p>
+ */
+public class AdaptiveWorkerLeaseController implements OsMemoryStatusListener, Stoppable {
+    public static final InternalFlag ADAPTIVE_WORKERS = new InternalFlag("org.gradle.internal.workers.adaptive");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveWorkerLeaseController.class);
+
+    private static final double LOW_FREE_MEMORY_FRACTION = 0.1;
+    private static final double HIGH_FREE_MEMORY_FRACTION = 0.25;
+    private static final double HIGH_LOAD_PER_PROCESSOR = 1.5;
+    private static final double LOW_LOAD_PER_PROCESSOR = 0.75;
+    private static final double HIGH_GC_TIME_FRACTION = 0.25;
+    private static final double LOW_GC_TIME_FRACTION = 0.1;
+
+    private final DefaultWorkerLeaseService workerLeaseService;
+    private final MemoryManager memoryManager;
+    private final Clock clock;
+    private final boolean enabled;
+    private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+    private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final int availableProcessors = Runtime.getRuntime().availableProcessors();
+    private final List<LimitChange> changes = new ArrayList<>();
+    private final long startTime;
+    private long lastSampleTime;
+    private long lastGcTime;
+
+    public AdaptiveWorkerLeaseController(boolean enabled, DefaultWorkerLeaseService workerLeaseService, MemoryManager memoryManager, Clock clock) {
+        this.workerLeaseService = workerLeaseService;
+        this.memoryManager = memoryManager;
+        this.clock = clock;
+        this.enabled = enabled && workerLeaseService.getMaxWorkerCount() > 1;
+        this.startTime = clock.getCurrentTime();
+        this.lastSampleTime = startTime;
+        this.lastGcTime = totalGcTime();
+        if (this.enabled) {
+            LOGGER.info("Adapting the number of worker leases to system load, up to {} worker leases.", workerLeaseService.getMaxWorkerCount());
+            memoryManager.addListener(this);
+        }
+    }
+
+    @Override
+    public synchronized void onOsMemoryStatus(OsMemoryStatus os) {
+        long now = clock.getCurrentTime();
+        long gcTime = totalGcTime();
+        double gcTimeFraction = now > lastSampleTime ? (double) (gcTime - lastGcTime) / (now - lastSampleTime) : 0;
+        lastSampleTime = now;
+        lastGcTime = gcTime;
+
+        double freeMemoryFraction = os.getTotalPhysicalMemory() > 0 ? (double) os.getFreePhysicalMemory() / os.getTotalPhysicalMemory() : 1;
+        double systemLoad = operatingSystem.getSystemLoadAverage();
+        double loadPerProcessor = systemLoad < 0 ? 0 : systemLoad / availableProcessors;
+
+        int currentLimit = workerLeaseService.getWorkerLeaseLimit();
+        int newLimit = chooseLimit(currentLimit, workerLeaseService.getMaxWorkerCount(), freeMemoryFraction, loadPerProcessor, gcTimeFraction);
+        if (newLimit != currentLimit) {
+            LOGGER.info("Changing worker lease limit from {} to {} (free memory {}%, load per processor {}, GC time {}%).",
+                currentLimit, newLimit, Math.round(freeMemoryFraction * 100), String.format(Locale.ROOT, "%.2f", loadPerProcessor), Math.round(gcTimeFraction * 100));
+            workerLeaseService.setWorkerLeaseLimit(newLimit);
+            changes.add(new LimitChange(now, newLimit));
+        }
+    }
+
+    @VisibleForTesting
+    static int chooseLimit(int currentLimit, int maxWorkerCount, double freeMemoryFraction, double loadPerProcessor, double gcTimeFraction) {
+        if (freeMemoryFraction < LOW_FREE_MEMORY_FRACTION || loadPerProcessor > HIGH_LOAD_PER_PROCESSOR || gcTimeFraction > HIGH_GC_TIME_FRACTION) {
+            return Math.max(1, currentLimit - 1);
+        }
+        if (freeMemoryFraction > HIGH_FREE_MEMORY_FRACTION && loadPerProcessor < LOW_LOAD_PER_PROCESSOR && gcTimeFraction < LOW_GC_TIME_FRACTION) {
+            return Math.min(maxWorkerCount, currentLimit + 1);
+        }
+        return currentLimit;
+    }
+
+    private long totalGcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectors) {
+            long time = garbageCollector.getCollectionTime();
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!enabled) {
+            return;
+        }
+        memoryManager.removeListener(this);
+        long now = clock.getCurrentTime();
+        LOGGER.info("Worker lease limit: {}", summarize(workerLeaseService.getMaxWorkerCount(), startTime, now, changes));
+    }
+
+    @VisibleForTesting
+    static String summarize(int initialLimit, long startTime, long endTime, List<LimitChange> changes) {
+        int min = initialLimit;
+        int max = initialLimit;
+        double weightedTotal = 0;
+        long previousTime = startTime;
+        int previousLimit = initialLimit;
+        for (LimitChange change : changes) {
+            weightedTotal += (double) previousLimit * (change.timestamp - previousTime);
+            previousTime = change.timestamp;
+            previousLimit = change.newLimit;
+            min = Math.min(min, change.newLimit);
+            max = Math.max(max, change.newLimit);
+        }
+        weightedTotal += (double) previousLimit * (endTime - previousTime);
+        double average = endTime > startTime ? weightedTotal / (endTime - startTime) : previousLimit;
+        return String.format(Locale.ROOT, "%d changes, min %d, max %d, final %d, time-weighted average %.1f", changes.size(), min, max, previousLimit, average);
+    }
+
+    @VisibleForTesting
+    static class LimitChange {
+        final long timestamp;
+        final int newLimit;
+
+        LimitChange(long timestamp, int newLimit) {
+            this.timestamp = timestamp;
+            this.newLimit = newLimit;
+        }
+    }
+}
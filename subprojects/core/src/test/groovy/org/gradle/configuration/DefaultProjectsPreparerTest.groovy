@@ -63,4 +63,16 @@ class DefaultProjectsPreparerTest extends Specification {
         modelParameters.configureOnDemand >> true
         1 * projectConfigurer.configureHierarchy(rootProject)
     }
+
+    def "configures projects in parallel when enabled"() {
+        when:
+        configurer.prepareProjects(gradle)
+
+        then:
+        gradle.rootBuild >> true
+        modelParameters.configureOnDemand >> true
+        modelParameters.parallelProjectConfiguration >> true
+        1 * projectConfigurer.configureHierarchyInParallel(rootProject)
+        0 * projectConfigurer.configureHierarchy(_)
+    }
 }
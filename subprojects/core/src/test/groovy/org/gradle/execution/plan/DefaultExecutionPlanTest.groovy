@@ -932,6 +932,24 @@ class DefaultExecutionPlanTest extends AbstractExecutionPlanSpec {
         executes(a, b)
     }
 
+    def "should run after ordering is ignored if it imposes a cycle with tasks scheduled in a later plan"() {
+        given:
+        Task a = createTask("a")
+        Task b = task("b", dependsOn: [a])
+        relationships(a, shouldRunAfter: [b])
+        addToGraphAndPopulate([a])
+        coordinator.withStateLock {
+            finalizedPlan.cancelExecution()
+        }
+
+        when:
+        executionPlan = newExecutionPlan()
+        addToGraphAndPopulate([b])
+
+        then:
+        executes(a, b)
+    }
+
     def "builds graph for finalizer task whose execution was cancelled in a previous plan"() {
         given:
         Task a = task("a", failure: new RuntimeException())
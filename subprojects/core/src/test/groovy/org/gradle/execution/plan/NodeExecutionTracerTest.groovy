@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan
+
+import groovy.json.JsonSlurper
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import static org.gradle.execution.plan.NodeExecutionTracer.WaitReason.PROJECT_LOCK
+import static org.gradle.execution.plan.NodeExecutionTracer.WaitReason.WORKER
+
+class NodeExecutionTracerTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider temporaryFolder = TestNameTestDirectoryProvider.newInstance(getClass())
+
+    def "is disabled when no trace file is specified"() {
+        expect:
+        !new NodeExecutionTracer(null).enabled
+        new NodeExecutionTracer(temporaryFolder.file("trace.json")).enabled
+    }
+
+    def "writes wait and execution spans for each node"() {
+        def traceFile = temporaryFolder.file("build/trace.json")
+        def tracer = new NodeExecutionTracer(traceFile)
+        def executed = Stub(Node) {
+            toString() >> ":a"
+        }
+        def skipped = Stub(Node) {
+            toString() >> ":b"
+        }
+
+        when:
+        tracer.nodeScheduled(executed)
+        tracer.nodeScheduled(skipped)
+        Thread.sleep(2)
+        tracer.nodeWaiting(executed, WORKER)
+        Thread.sleep(2)
+        tracer.nodeWaiting(executed, PROJECT_LOCK)
+        Thread.sleep(2)
+        tracer.nodeStarted(executed)
+        Thread.sleep(2)
+        tracer.nodeCompleted(executed)
+        tracer.nodeCompleted(skipped)
+        tracer.stop()
+
+        then:
+        def events = new JsonSlurper().parse(traceFile).traceEvents
+        events.find { it.ph == "M" && it.name == "thread_name" }.args.name == Thread.currentThread().name
+
+        def execution = events.find { it.ph == "X" }
+        execution.name == ":a"
+        execution.tid == Thread.currentThread().id
+
+        events.findAll { it.ph == "b" && it.args.node == ":a" }*.name == [":a", "waiting for dependencies", "waiting for a worker", "waiting for project lock"]
+        events.findAll { it.ph == "b" && it.args.node == ":b" }*.name == [":b (did not execute)", "waiting for dependencies"]
+        events.count { it.ph == "b" } == events.count { it.ph == "e" }
+    }
+
+    def "node held back by a lock is waiting for a worker once running work finishes"() {
+        def traceFile = temporaryFolder.file("trace.json")
+        def tracer = new NodeExecutionTracer(traceFile)
+        def node = Stub(Node) {
+            toString() >> ":a"
+        }
+
+        when:
+        tracer.nodeScheduled(node)
+        Thread.sleep(2)
+        tracer.nodeWaiting(node, PROJECT_LOCK)
+        Thread.sleep(2)
+        tracer.runningWorkFinished()
+        Thread.sleep(2)
+        tracer.nodeStarted(node)
+        tracer.nodeCompleted(node)
+        tracer.stop()
+
+        then:
+        def events = new JsonSlurper().parse(traceFile).traceEvents
+        events.findAll { it.ph == "b" && it.args.node == ":a" }*.name == [":a", "waiting for dependencies", "waiting for project lock", "waiting for a worker"]
+    }
+
+    def "does not fail when the trace file cannot be written"() {
+        def parent = temporaryFolder.file("not-a-dir").createFile()
+        def tracer = new NodeExecutionTracer(parent.file("trace.json"))
+        def node = Stub(Node) {
+            toString() >> ":a"
+        }
+
+        when:
+        tracer.nodeScheduled(node)
+        tracer.nodeCompleted(node)
+        tracer.stop()
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "quotes strings"() {
+        expect:
+        NodeExecutionTracer.quote('a"b\\c\n') == '"a\\"b\\\\c\\u000a"'
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan
+
+import org.gradle.api.Action
+import org.gradle.api.Task
+import org.gradle.api.internal.tasks.TaskDependencyContainer
+import org.gradle.api.internal.tasks.TaskDependencyResolveContext
+import org.gradle.api.internal.tasks.WorkDependencyResolver
+import spock.lang.Specification
+
+class TaskDependencyResolverTest extends Specification {
+    def node1 = Stub(Node)
+    def node2 = Stub(Node)
+    def nodeResolver = new WorkDependencyResolver<Node>() {
+        @Override
+        boolean resolve(Task task, Object node, Action<? super Node> resolveAction) {
+            if (node == "one") {
+                resolveAction.execute(node1)
+                return true
+            }
+            if (node == "two") {
+                resolveAction.execute(node2)
+                return true
+            }
+            return false
+        }
+    }
+    def resolver = new TaskDependencyResolver([nodeResolver])
+    def declaration = Mock(TaskDependencyContainer)
+
+    def "visits dependency declaration when its dependencies have not been prefetched"() {
+        when:
+        def result = resolver.resolveDependenciesFor(null, declaration)
+
+        then:
+        result == [node1] as Set
+
+        and:
+        1 * declaration.visitDependencies(_) >> { TaskDependencyResolveContext context -> context.add("one") }
+    }
+
+    def "uses prefetched dependencies instead of visiting dependency declaration"() {
+        given:
+        resolver.addPrefetchedDependencies(declaration, ["one", "two"] as LinkedHashSet)
+
+        when:
+        def result = resolver.resolveDependenciesFor(null, declaration)
+
+        then:
+        result == [node1, node2] as Set
+
+        and:
+        0 * declaration._
+    }
+
+    def "prefetched dependencies are used once only"() {
+        given:
+        resolver.addPrefetchedDependencies(declaration, ["one", "two"] as LinkedHashSet)
+        resolver.resolveDependenciesFor(null, declaration)
+
+        when:
+        def result = resolver.resolveDependenciesFor(null, declaration)
+
+        then:
+        result == [node2] as Set
+
+        and:
+        1 * declaration.visitDependencies(_) >> { TaskDependencyResolveContext context -> context.add("two") }
+    }
+
+    def "discards prefetched dependencies when cleared"() {
+        given:
+        resolver.addPrefetchedDependencies(declaration, ["one", "two"] as LinkedHashSet)
+        resolver.clear()
+
+        when:
+        def result = resolver.resolveDependenciesFor(null, declaration)
+
+        then:
+        result.empty
+
+        and:
+        1 * declaration.visitDependencies(_)
+    }
+}
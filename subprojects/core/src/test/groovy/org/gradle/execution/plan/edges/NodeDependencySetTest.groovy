@@ -100,4 +100,38 @@ class NodeDependencySetTest extends Specification {
         then:
         set.getState(node) == Node.DependenciesState.COMPLETE_AND_NOT_SUCCESSFUL
     }
+
+    def "retains dependencies and state when compacted"() {
+        def dep1 = Stub(Node)
+        def dep2 = Stub(Node)
+        def dep3 = Stub(Node)
+
+        given:
+        _ * node.shouldContinueExecution(_) >> true
+
+        when:
+        set.addDependency(dep1)
+        set.addDependency(dep2)
+        set.compact()
+
+        then:
+        set.dependencySuccessors.toList().toSet() == [dep1, dep2] as Set
+        set.getState(node) == Node.DependenciesState.NOT_COMPLETE
+
+        when:
+        set.addDependency(dep3)
+        set.onNodeComplete(node, dep1)
+        set.onNodeComplete(node, dep2)
+
+        then:
+        set.dependencySuccessors.toList().toSet() == [dep1, dep2, dep3] as Set
+        set.getState(node) == Node.DependenciesState.NOT_COMPLETE
+
+        when:
+        set.onNodeComplete(node, dep3)
+        set.compact()
+
+        then:
+        set.getState(node) == Node.DependenciesState.COMPLETE_AND_SUCCESSFUL
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work
+
+import org.gradle.concurrent.ParallelismConfiguration
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService
+import org.gradle.internal.time.Clock
+import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.process.internal.health.memory.OsMemoryStatusSnapshot
+import spock.lang.Specification
+
+import static org.gradle.internal.work.AdaptiveWorkerLeaseController.LimitChange
+import static org.gradle.internal.work.AdaptiveWorkerLeaseController.chooseLimit
+import static org.gradle.internal.work.AdaptiveWorkerLeaseController.summarize
+
+class AdaptiveWorkerLeaseControllerTest extends Specification {
+    def memoryManager = Mock(MemoryManager)
+    def clock = Stub(Clock)
+    def workerLeaseService = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), Stub(ParallelismConfiguration) {
+        getMaxWorkerCount() >> 4
+    })
+
+    def "shrinks limit when the machine is under pressure"() {
+        expect:
+        chooseLimit(4, 4, freeMemory, load, gcTime) == 3
+
+        where:
+        freeMemory | load | gcTime
+        0.05       | 0.1  | 0.0
+        0.5        | 2.0  | 0.0
+        0.5        | 0.1  | 0.3
+    }
+
+    def "grows limit when the machine has spare capacity"() {
+        expect:
+        chooseLimit(2, 4, 0.5, 0.1, 0.01) == 3
+        chooseLimit(4, 4, 0.5, 0.1, 0.01) == 4
+    }
+
+    def "keeps limit when the machine is moderately loaded"() {
+        expect:
+        chooseLimit(2, 4, 0.2, 0.1, 0.01) == 2
+        chooseLimit(2, 4, 0.5, 1.0, 0.01) == 2
+        chooseLimit(2, 4, 0.5, 0.1, 0.2) == 2
+    }
+
+    def "never shrinks limit below one"() {
+        expect:
+        chooseLimit(1, 4, 0.01, 10, 0.9) == 1
+    }
+
+    def "summarizes limits over time"() {
+        expect:
+        summarize(4, 0, 100, []) == "0 changes, min 4, max 4, final 4, time-weighted average 4.0"
+        summarize(4, 0, 100, [new LimitChange(50, 2)]) == "1 changes, min 2, max 4, final 2, time-weighted average 3.0"
+    }
+
+    def "does nothing when disabled"() {
+        when:
+        def controller = new AdaptiveWorkerLeaseController(false, workerLeaseService, memoryManager, clock)
+
+        then:
+        0 * memoryManager._
+
+        when:
+        controller.stop()
+
+        then:
+        0 * memoryManager._
+    }
+
+    def "adjusts lease limit on memory status updates when enabled"() {
+        when:
+        def controller = new AdaptiveWorkerLeaseController(true, workerLeaseService, memoryManager, clock)
+
+        then:
+        1 * memoryManager.addListener(_ as AdaptiveWorkerLeaseController)
+
+        when:
+        controller.onOsMemoryStatus(new OsMemoryStatusSnapshot(1000, 10))
+
+        then:
+        workerLeaseService.workerLeaseLimit == 3
+
+        when:
+        controller.stop()
+
+        then:
+        1 * memoryManager.removeListener(controller)
+    }
+}
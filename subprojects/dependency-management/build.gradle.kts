@@ -1,5 +1,6 @@
 plugins {
     id("gradlebuild.distribution.implementation-java")
+    id("gradlebuild.jmh")
 }
 
 description = """This project contains most of the dependency management logic of Gradle:
@@ -38,6 +39,7 @@ dependencies {
     implementation(libs.asm)
     implementation(libs.asmCommons)
     implementation(libs.guava)
+    implementation(libs.fastutil)
     implementation(libs.commonsLang)
     implementation(libs.commonsIo)
     implementation(libs.httpcore)
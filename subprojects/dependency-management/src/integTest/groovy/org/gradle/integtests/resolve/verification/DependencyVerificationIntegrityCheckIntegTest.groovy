@@ -17,6 +17,7 @@
 package org.gradle.integtests.resolve.verification
 
 import org.gradle.api.internal.artifacts.ivyservice.CacheLayout
+import org.gradle.integtests.fixtures.BuildOperationsFixture
 import org.gradle.integtests.fixtures.cache.CachingIntegrationFixture
 import org.gradle.integtests.fixtures.executer.GradleContextualExecuter
 import org.gradle.test.fixtures.file.TestFile
@@ -26,6 +27,8 @@ import spock.lang.Issue
 import static org.gradle.util.Matchers.containsText
 
 class DependencyVerificationIntegrityCheckIntegTest extends AbstractDependencyVerificationIntegTest implements CachingIntegrationFixture {
+    def operations = new BuildOperationsFixture(executer, testDirectoryProvider)
+
     def "doesn't fail if verification metadata matches for #kind"() {
         createMetadataFile {
             addChecksum("org:foo:1.0", kind, jar)
@@ -52,6 +55,35 @@ class DependencyVerificationIntegrityCheckIntegTest extends AbstractDependencyVe
         "sha512" | "328114e6f92f888c200ea6889d9ba0c940ca260e81fcaeb238d583d7fab96fab451288afee1153dc9bf93caa33200583151f5d9aa500bbebc13a3dae92218bba" | "3d890ff72a2d6fcb2a921715143e6489d8f650a572c33070b7f290082a07bfc4af0b64763bcf505e1c07388bc21b7d5707e50a3952188dc604814e09387fbbfe"
     }
 
+    def "verifies each artifact in a child of a single verification operation"() {
+        createMetadataFile {
+            addChecksum("org:foo:1.0", "sha1", "d48c8da6999eb2191744f01691f84675e7ff520b")
+            addChecksum("org:foo:1.0", "sha1", "85a7b8a2eb6bb1c4cdbbfe5e6c8dc3757de22c02", "pom", "pom")
+        }
+
+        given:
+        javaLibrary()
+        uncheckedModule("org", "foo")
+        buildFile << """
+            dependencies {
+                implementation "org:foo:1.0"
+            }
+        """
+
+        when:
+        succeeds ":compileJava"
+
+        then:
+        def artifactVerifications = operations.all("Dependency verification")
+        artifactVerifications.size() == 2
+        artifactVerifications.each { artifactVerification ->
+            def parent = operations.parentsOf(artifactVerification).last()
+            assert parent.displayName == "Verify dependencies"
+            assert parent.startTime <= artifactVerification.startTime
+            assert parent.endTime >= artifactVerification.endTime
+        }
+    }
+
     def "doesn't try to verify checksums for changing dependencies"() {
         createMetadataFile {
             // empty
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec;
+import org.gradle.internal.component.external.descriptor.DefaultExclude;
+import org.gradle.internal.component.model.DefaultIvyArtifactName;
+import org.gradle.internal.component.model.ExcludeMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the cost of evaluating exclude specs against the modules of a large graph, where the specs are built
+ * the way the graph builder builds them: the excludes declared by each dependency, combined with the exclusions of the nodes it is reached from.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ExcludeSpecEvaluationBenchmark {
+    private static final String[] PATTERN_MATCHERS = {"regexp", "glob"};
+
+    @Param({"2000"})
+    int moduleCount;
+
+    @Param({"500"})
+    int nodeCount;
+
+    @Param({"0", "20"})
+    int patternExcludePercentage;
+
+    private List<ModuleIdentifier> modules;
+    private List<ExcludeSpec> nodeExclusions;
+
+    @Setup
+    public void createGraph() {
+        Random random = new Random(moduleCount);
+        modules = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            modules.add(DefaultModuleIdentifier.newId("org.group" + (i % 50), "module" + i));
+        }
+
+        ModuleExclusions moduleExclusions = new ModuleExclusions();
+        nodeExclusions = new ArrayList<>(nodeCount);
+        nodeExclusions.add(moduleExclusions.nothing());
+        for (int i = 1; i < nodeCount; i++) {
+            List<ExcludeMetadata> excludes = new ArrayList<>();
+            int excludeCount = random.nextInt(4);
+            for (int j = 0; j < excludeCount; j++) {
+                excludes.add(randomExclude(random));
+            }
+            ExcludeSpec fromDependency = moduleExclusions.excludeAny(excludes);
+            ExcludeSpec fromParent = nodeExclusions.get(random.nextInt(i));
+            ExcludeSpec nodeExclusion = moduleExclusions.excludeAny(fromParent, fromDependency);
+            if (random.nextBoolean()) {
+                // Reached through a second path
+                nodeExclusion = moduleExclusions.excludeAll(nodeExclusion, nodeExclusions.get(random.nextInt(i)));
+            }
+            nodeExclusions.add(nodeExclusion);
+        }
+    }
+
+    private ExcludeMetadata randomExclude(Random random) {
+        ModuleIdentifier module = modules.get(random.nextInt(moduleCount));
+        if (random.nextInt(100) < patternExcludePercentage) {
+            String matcher = PATTERN_MATCHERS[random.nextInt(PATTERN_MATCHERS.length)];
+            String name = matcher.equals("glob") ? "module" + random.nextInt(10) + "*" : "module" + random.nextInt(10) + ".*";
+            if (random.nextBoolean()) {
+                return new DefaultExclude(DefaultModuleIdentifier.newId(module.getGroup(), name), new String[0], matcher);
+            }
+            return new DefaultExclude(module, new DefaultIvyArtifactName(name, "jar", "jar"), new String[0], matcher);
+        }
+        if (random.nextInt(4) == 0) {
+            return new DefaultExclude(DefaultModuleIdentifier.newId(module.getGroup(), PatternMatchers.ANY_EXPRESSION));
+        }
+        return new DefaultExclude(module);
+    }
+
+    @Benchmark
+    public int evaluateExcludes() {
+        int excluded = 0;
+        for (ExcludeSpec nodeExclusion : nodeExclusions) {
+            // Each node checks a slice of the modules, as the targets of its outgoing edges
+            int first = Math.abs(nodeExclusion.hashCode() % moduleCount);
+            for (int i = 0; i < 50; i++) {
+                if (nodeExclusion.excludes(modules.get((first + i) % moduleCount))) {
+                    excluded++;
+                }
+            }
+        }
+        return excluded;
+    }
+}
@@ -44,7 +44,8 @@ public class DefaultResolvableArtifact implements ResolvableArtifact {
     private final CalculatedValue<File> fileSource;
     private final WorkNodeAction resolvedArtifactDependency;
     private final CalculatedValueContainerFactory calculatedValueContainerFactory;
-    private final PreResolvedResolvableArtifact publicView;
+    // Created on first use, as most artifacts are only ever visited as files
+    private volatile PreResolvedResolvableArtifact publicView;
 
     public DefaultResolvableArtifact(@Nullable ModuleVersionIdentifier owner, IvyArtifactName artifact, ComponentArtifactIdentifier artifactId, TaskDependencyContainer builtBy, CalculatedValue<File> fileSource, CalculatedValueContainerFactory calculatedValueContainerFactory) {
         this.owner = owner;
@@ -60,7 +61,6 @@ public DefaultResolvableArtifact(@Nullable ModuleVersionIdentifier owner, IvyArt
             this.resolvedArtifactDependency = null;
         }
         this.calculatedValueContainerFactory = calculatedValueContainerFactory;
-        publicView = new PreResolvedResolvableArtifact(owner, artifact, artifactId, fileSource, buildDependencies, calculatedValueContainerFactory);
     }
 
     @Override
@@ -105,7 +105,13 @@ public int hashCode() {
 
     @Override
     public ResolvedArtifact toPublicView() {
-        return publicView;
+        PreResolvedResolvableArtifact view = publicView;
+        if (view == null) {
+            // Racing threads may each create a view, which is harmless as views are equal when their ids are
+            view = new PreResolvedResolvableArtifact(owner, artifact, artifactId, fileSource, buildDependencies, calculatedValueContainerFactory);
+            publicView = view;
+        }
+        return view;
     }
 
     @Override
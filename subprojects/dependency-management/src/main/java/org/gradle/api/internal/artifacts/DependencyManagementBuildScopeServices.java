@@ -196,6 +196,7 @@
 import org.gradle.internal.resource.local.LocallyAvailableResourceFinder;
 import org.gradle.internal.resource.local.ivy.LocallyAvailableResourceFinderFactory;
 import org.gradle.internal.resource.transfer.CachingTextUriResourceLoader;
+import org.gradle.internal.resource.transfer.ExternalResourceRevalidationStatistics;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.snapshot.ValueSnapshotter;
@@ -222,6 +223,7 @@ void configure(ServiceRegistration registration) {
         registration.add(DefaultProjectLocalComponentProvider.class);
         registration.add(DefaultProjectPublicationRegistry.class);
         registration.add(FileResourceConnector.class);
+        registration.add(ExternalResourceRevalidationStatistics.class);
     }
 
     DependencyResolutionManagementInternal createSharedDependencyResolutionServices(Instantiator instantiator,
@@ -469,7 +471,8 @@ RepositoryTransportFactory createRepositoryTransportFactory(TemporaryFileProvide
                                                                 ProducerGuard<ExternalResourceName> producerGuard,
                                                                 FileResourceRepository fileResourceRepository,
                                                                 ChecksumService checksumService,
-                                                                StartParameterResolutionOverride startParameterResolutionOverride) {
+                                                                StartParameterResolutionOverride startParameterResolutionOverride,
+                                                                ExternalResourceRevalidationStatistics revalidationStatistics) {
         return artifactCachesProvider.withWritableCache((md, manager) -> new RepositoryTransportFactory(
             resourceConnectorFactories,
             temporaryFileProvider,
@@ -480,7 +483,8 @@ RepositoryTransportFactory createRepositoryTransportFactory(TemporaryFileProvide
             startParameterResolutionOverride,
             producerGuard,
             fileResourceRepository,
-            checksumService
+            checksumService,
+            revalidationStatistics
         ));
     }
 
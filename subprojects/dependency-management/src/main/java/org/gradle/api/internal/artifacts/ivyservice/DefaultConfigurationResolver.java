@@ -54,6 +54,7 @@
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.AttributeContainerSerializer;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ComponentSelectionDescriptorFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.FileDependencyCollectingGraphVisitor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ResolvedVariantResultInterner;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.StreamingResolutionResultBuilder;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.store.ResolutionResultsStoreFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.store.StoreSet;
@@ -96,6 +97,8 @@ public class DefaultConfigurationResolver implements ConfigurationResolver {
     private final ComponentSelectionDescriptorFactory componentSelectionDescriptorFactory;
     private final WorkerLeaseService workerLeaseService;
     private final ProjectDependencyResolver projectDependencyResolver;
+    private final RepeatedResolutionStatistics repeatedResolutionStatistics;
+    private final ResolvedVariantResultInterner variantInterner;
 
     public DefaultConfigurationResolver(ArtifactDependencyResolver resolver,
                                         RepositoriesSupplier repositoriesSupplier,
@@ -113,7 +116,9 @@ public DefaultConfigurationResolver(ArtifactDependencyResolver resolver,
                                         DependencyVerificationOverride dependencyVerificationOverride,
                                         ProjectDependencyResolver projectDependencyResolver,
                                         ComponentSelectionDescriptorFactory componentSelectionDescriptorFactory,
-                                        WorkerLeaseService workerLeaseService) {
+                                        WorkerLeaseService workerLeaseService,
+                                        RepeatedResolutionStatistics repeatedResolutionStatistics,
+                                        ResolvedVariantResultInterner variantInterner) {
         this.resolver = resolver;
         this.repositoriesSupplier = repositoriesSupplier;
         this.metadataHandler = metadataHandler;
@@ -132,6 +137,8 @@ public DefaultConfigurationResolver(ArtifactDependencyResolver resolver,
         this.projectDependencyResolver = projectDependencyResolver;
         this.componentSelectionDescriptorFactory = componentSelectionDescriptorFactory;
         this.workerLeaseService = workerLeaseService;
+        this.repeatedResolutionStatistics = repeatedResolutionStatistics;
+        this.variantInterner = variantInterner;
     }
 
     @Override
@@ -159,7 +166,7 @@ public void resolveGraph(ConfigurationInternal configuration, ResolverResults re
 
         BinaryStore newModelStore = stores.nextBinaryStore();
         Store<ResolvedComponentResult> newModelCache = stores.newModelCache();
-        StreamingResolutionResultBuilder newModelBuilder = new StreamingResolutionResultBuilder(newModelStore, newModelCache, moduleIdentifierFactory, attributeContainerSerializer, attributeDesugaring, componentSelectionDescriptorFactory, configuration.getReturnAllVariants());
+        StreamingResolutionResultBuilder newModelBuilder = new StreamingResolutionResultBuilder(newModelStore, newModelCache, moduleIdentifierFactory, attributeContainerSerializer, attributeDesugaring, componentSelectionDescriptorFactory, variantInterner, configuration.getReturnAllVariants());
 
         ResolvedLocalComponentsResultGraphVisitor localComponentsVisitor = new ResolvedLocalComponentsResultGraphVisitor(currentBuild);
 
@@ -191,7 +198,9 @@ public void resolveGraph(ConfigurationInternal configuration, ResolverResults re
         ImmutableList<DependencyArtifactsVisitor> allVisitors = visitors.build();
         CompositeDependencyArtifactsVisitor artifactsVisitor = new CompositeDependencyArtifactsVisitor(allVisitors);
 
+        long startNanos = System.nanoTime();
         resolver.resolve(configuration, resolutionAwareRepositories, metadataHandler, Specs.satisfyAll(), graphVisitor, artifactsVisitor, attributesSchema, artifactTypeRegistry, projectDependencyResolver, true);
+        repeatedResolutionStatistics.resolved(configuration, resolutionAwareRepositories, System.nanoTime() - startNanos);
 
         VisitedArtifactsResults artifactsResults = artifactsBuilder.complete();
         VisitedFileDependencyResults fileDependencyResults = fileDependencyVisitor.complete();
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyArtifact;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.artifacts.VersionConstraint;
+import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal;
+import org.gradle.api.internal.artifacts.configurations.ResolutionStrategyInternal;
+import org.gradle.api.internal.artifacts.repositories.ResolutionAwareRepository;
+import org.gradle.api.internal.artifacts.repositories.descriptor.RepositoryDescriptor;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.Actions;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the dependency graph resolutions of a build tree that repeat an earlier resolution with identical inputs,
+ * and the time spent in them.
+ *
+ * <p>Only resolutions whose result is fully determined by their declared external dependencies, constraints, attributes
+ * and repositories are considered. Resolutions involving project or file dependencies, changing modules, substitution
+ * rules, component selection rules or dependency locking are never counted as repeated.
+ * Component metadata rules are not taken into account, so the statistics are an upper bound of what reusing results could save.</p>
+ *
+ * <p>The statistics are only reported at info level, so nothing is recorded unless info logging is enabled.</p>
+ */
+public class RepeatedResolutionStatistics implements Closeable {
+    private static final Logger LOGGER = Logging.getLogger(RepeatedResolutionStatistics.class);
+
+    private final boolean enabled;
+    private final Set<HashCode> resolvedInputs = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger resolutionCount = new AtomicInteger();
+    private final AtomicInteger repeatedCount = new AtomicInteger();
+    private final AtomicLong repeatedNanos = new AtomicLong();
+
+    @Inject
+    public RepeatedResolutionStatistics() {
+        this(LOGGER.isInfoEnabled());
+    }
+
+    @VisibleForTesting
+    RepeatedResolutionStatistics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records a resolution of the given configuration, which took the given time.
+     */
+    public void resolved(ConfigurationInternal configuration, List<ResolutionAwareRepository> repositories, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        resolutionCount.incrementAndGet();
+        HashCode inputs = hashInputs(configuration, repositories);
+        if (inputs != null && !resolvedInputs.add(inputs)) {
+            repeatedCount.incrementAndGet();
+            repeatedNanos.addAndGet(elapsedNanos);
+        }
+    }
+
+    public int getResolutionCount() {
+        return resolutionCount.get();
+    }
+
+    public int getRepeatedCount() {
+        return repeatedCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (repeatedCount.get() > 0) {
+            LOGGER.info("{} of {} dependency resolutions repeated an earlier resolution with identical inputs, taking {} ms.",
+                repeatedCount.get(), resolutionCount.get(), TimeUnit.NANOSECONDS.toMillis(repeatedNanos.get()));
+        }
+    }
+
+    /**
+     * Returns a hash of the inputs of the resolution, or {@code null} when the resolution is not eligible.
+     */
+    @Nullable
+    private static HashCode hashInputs(ConfigurationInternal configuration, List<ResolutionAwareRepository> repositories) {
+        ResolutionStrategyInternal resolutionStrategy = configuration.getResolutionStrategy();
+        if (resolutionStrategy.isDependencyLockingEnabled()
+            || resolutionStrategy.getDependencySubstitutionRule() != Actions.doNothing()
+            || !resolutionStrategy.getComponentSelection().getRules().isEmpty()) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.newHasher();
+        hasher.putString(configuration.getAttributes().asImmutable().toString());
+        hasher.putString(resolutionStrategy.getConflictResolution().name());
+        hasher.putBoolean(configuration.getReturnAllVariants());
+        for (ResolutionAwareRepository repository : repositories) {
+            RepositoryDescriptor descriptor = repository.getDescriptor();
+            hasher.putString(descriptor.getType().name());
+            hasher.putString(descriptor.getProperties().toString());
+        }
+        for (Dependency dependency : configuration.getAllDependencies()) {
+            if (!(dependency instanceof ExternalModuleDependency)) {
+                return null;
+            }
+            ExternalModuleDependency moduleDependency = (ExternalModuleDependency) dependency;
+            if (moduleDependency.isChanging()) {
+                return null;
+            }
+            hasher.putString(String.valueOf(moduleDependency.getGroup()));
+            hasher.putString(moduleDependency.getName());
+            hashVersion(hasher, moduleDependency.getVersionConstraint());
+            hasher.putString(String.valueOf(moduleDependency.getTargetConfiguration()));
+            hasher.putBoolean(moduleDependency.isTransitive());
+            hasher.putString(moduleDependency.getAttributes().toString());
+            hasher.putString(moduleDependency.getRequestedCapabilities().toString());
+            for (ExcludeRule excludeRule : moduleDependency.getExcludeRules()) {
+                hasher.putString(String.valueOf(excludeRule.getGroup()));
+                hasher.putString(String.valueOf(excludeRule.getModule()));
+            }
+            for (DependencyArtifact artifact : moduleDependency.getArtifacts()) {
+                hasher.putString(artifact.getName());
+                hasher.putString(artifact.getType());
+                hasher.putString(String.valueOf(artifact.getExtension()));
+                hasher.putString(String.valueOf(artifact.getClassifier()));
+            }
+        }
+        for (DependencyConstraint constraint : configuration.getAllDependencyConstraints()) {
+            hasher.putString(constraint.getGroup());
+            hasher.putString(constraint.getName());
+            hashVersion(hasher, constraint.getVersionConstraint());
+            hasher.putString(constraint.getAttributes().toString());
+        }
+        return hasher.hash();
+    }
+
+    private static void hashVersion(Hasher hasher, VersionConstraint version) {
+        hasher.putString(version.getRequiredVersion());
+        hasher.putString(version.getPreferredVersion());
+        hasher.putString(version.getStrictVersion());
+        hasher.putString(String.valueOf(version.getBranch()));
+        hasher.putString(version.getRejectedVersions().toString());
+    }
+}
@@ -55,6 +55,7 @@
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
@@ -132,34 +133,31 @@ private void verifyConcurrently() {
             LOGGER.debug("Cannot perform verification of all dependencies because the verification service has been shutdown. Under normal circumstances this shouldn't happen unless a user buildFinished was added in an unexpected way.");
             return;
         }
-        buildOperationExecutor.runAll(queue -> {
-            VerificationEvent event;
-            synchronized (verificationEvents) {
-                while ((event = verificationEvents.poll()) != null) {
-                    VerificationEvent ve = event;
-                    queue.add(new RunnableBuildOperation() {
-                        @Override
-                        public void run(BuildOperationContext context) {
-                            verifier.verify(checksumService, signatureVerificationService, ve.kind, ve.artifact, observed(ve.mainFile), observed(ve.signatureFile.create()), f -> {
-                                synchronized (failures) {
-                                    failures.put(ve.artifact, new RepositoryAwareVerificationFailure(f, ve.repositoryName));
-                                }
-                                if (f.isFatal()) {
-                                    hasFatalFailure.set(true);
-                                }
-                            });
-                        }
+        List<VerificationEvent> events;
+        synchronized (verificationEvents) {
+            // Drain the pending events up front, so that resolving threads reporting artifacts are not blocked while verification runs
+            events = new ArrayList<>(verificationEvents);
+            verificationEvents.clear();
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        buildOperationExecutor.run(new RunnableBuildOperation() {
+            @Override
+            public void run(BuildOperationContext context) {
+                buildOperationExecutor.runAll(queue -> {
+                    for (VerificationEvent event : events) {
+                        queue.add(new VerifyArtifactOperation(event));
+                    }
+                });
+            }
 
-                        @Override
-                        public BuildOperationDescriptor.Builder description() {
-                            return BuildOperationDescriptor.displayName("Dependency verification")
-                                .progressDisplayName("Verifying " + ve.artifact);
-                        }
-                    });
-                }
+            @Override
+            public BuildOperationDescriptor.Builder description() {
+                return BuildOperationDescriptor.displayName("Verify dependencies")
+                    .progressDisplayName("Verifying " + events.size() + (events.size() == 1 ? " artifact" : " artifacts"));
             }
         });
-
     }
 
     @Override
@@ -238,6 +236,32 @@ public void stop() {
         signatureVerificationService.stop();
     }
 
+    private class VerifyArtifactOperation implements RunnableBuildOperation {
+        private final VerificationEvent event;
+
+        private VerifyArtifactOperation(VerificationEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            verifier.verify(checksumService, signatureVerificationService, event.kind, event.artifact, observed(event.mainFile), observed(event.signatureFile.create()), f -> {
+                synchronized (failures) {
+                    failures.put(event.artifact, new RepositoryAwareVerificationFailure(f, event.repositoryName));
+                }
+                if (f.isFatal()) {
+                    hasFatalFailure.set(true);
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Dependency verification")
+                .progressDisplayName("Verifying " + event.artifact);
+        }
+    }
+
     private static class VerificationQuery {
         private final ModuleComponentArtifactIdentifier artifact;
         private final String repositoryId;
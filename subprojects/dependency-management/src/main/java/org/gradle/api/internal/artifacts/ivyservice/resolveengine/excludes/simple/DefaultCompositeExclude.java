@@ -17,24 +17,64 @@
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableSet;
+import org.gradle.api.artifacts.ModuleIdentifier;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.CompositeExclude;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.IvyPatternMatcherExcludeRuleSpec;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 abstract class DefaultCompositeExclude implements CompositeExclude {
+    // Below this size, evaluating simple components is cheaper than looking up a memoized result
+    private static final int MEMOIZATION_THRESHOLD = 4;
+
     private final ImmutableSet<ExcludeSpec> components;
     private final int hashCode;
     private final int size;
+    // Specs are shared between the edges of a graph and between resolutions, so memoize results per module
+    private final Map<ModuleIdentifier, Boolean> excludedModules;
 
     DefaultCompositeExclude(ImmutableSet<ExcludeSpec> components) {
         this.components = components;
         this.size = components.size();
         this.hashCode = (31 * components.hashCode() + this.size) ^ mask();
+        this.excludedModules = isWorthMemoizing(components) ? new ConcurrentHashMap<>() : null;
+    }
+
+    private static boolean isWorthMemoizing(ImmutableSet<ExcludeSpec> components) {
+        if (components.size() >= MEMOIZATION_THRESHOLD) {
+            return true;
+        }
+        for (ExcludeSpec component : components) {
+            if (component instanceof CompositeExclude || component instanceof IvyPatternMatcherExcludeRuleSpec) {
+                return true;
+            }
+        }
+        return false;
     }
 
     abstract int mask();
 
+    @Override
+    public final boolean excludes(ModuleIdentifier module) {
+        if (excludedModules == null) {
+            return doExcludes(module);
+        }
+        Boolean excluded = excludedModules.get(module);
+        if (excluded == null) {
+            excluded = doExcludes(module);
+            excludedModules.put(module, excluded);
+        }
+        return excluded;
+    }
+
+    /**
+     * Determines if this exclude rule excludes the supplied module, by evaluating its components.
+     */
+    abstract boolean doExcludes(ModuleIdentifier module);
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -17,6 +17,7 @@
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.simple;
 
 import com.google.common.base.Objects;
+import org.apache.ivy.plugins.matcher.Matcher;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.gradle.api.artifacts.ModuleIdentifier;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.PatternMatchers;
@@ -24,6 +25,8 @@
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.IvyPatternMatcherExcludeRuleSpec;
 import org.gradle.internal.component.model.IvyArtifactName;
 
+import javax.annotation.Nullable;
+
 final class DefaultIvyPatternMatcherExcludeRuleSpec implements IvyPatternMatcherExcludeRuleSpec {
     private final ModuleIdentifier moduleId;
     private final IvyArtifactName ivyArtifactName;
@@ -31,6 +34,13 @@ final class DefaultIvyPatternMatcherExcludeRuleSpec implements IvyPatternMatcher
     private final boolean isArtifactExclude;
     private final int hashCode;
 
+    // Expressions compiled once, rather than for each module or artifact checked
+    private final Matcher groupMatcher;
+    private final Matcher moduleMatcher;
+    private final Matcher artifactNameMatcher;
+    private final Matcher extensionMatcher;
+    private final Matcher typeMatcher;
+
     public static ExcludeSpec of(ModuleIdentifier moduleId, IvyArtifactName artifact, String matcher) {
         return new DefaultIvyPatternMatcherExcludeRuleSpec(moduleId, artifact, matcher);
     }
@@ -41,6 +51,16 @@ private DefaultIvyPatternMatcherExcludeRuleSpec(ModuleIdentifier moduleId, IvyAr
         this.matcher = PatternMatchers.getInstance().getMatcher(matcher);
         isArtifactExclude = ivyArtifactName != null;
         hashCode = Objects.hashCode(moduleId, ivyArtifactName, matcher, isArtifactExclude);
+        groupMatcher = compile(moduleId.getGroup());
+        moduleMatcher = compile(moduleId.getName());
+        artifactNameMatcher = isArtifactExclude ? compile(ivyArtifactName.getName()) : null;
+        extensionMatcher = isArtifactExclude ? compile(ivyArtifactName.getExtension()) : null;
+        typeMatcher = isArtifactExclude ? compile(ivyArtifactName.getType()) : null;
+    }
+
+    @Nullable
+    private Matcher compile(@Nullable String expression) {
+        return expression == null || matcher == null ? null : matcher.getMatcher(expression);
     }
 
     @Override
@@ -53,7 +73,7 @@ public boolean excludes(ModuleIdentifier module) {
         if (isArtifactExclude) {
             return false;
         }
-        return matches(moduleId.getGroup(), module.getGroup()) && matches(moduleId.getName(), module.getName());
+        return matches(groupMatcher, module.getGroup()) && matches(moduleMatcher, module.getName());
     }
 
     @Override
@@ -61,11 +81,11 @@ public boolean excludesArtifact(ModuleIdentifier module, IvyArtifactName artifac
         if (!isArtifactExclude) {
             return false;
         }
-        return matches(moduleId.getGroup(), module.getGroup())
-            && matches(moduleId.getName(), module.getName())
-            && matches(ivyArtifactName.getName(), artifact.getName())
-            && matches(ivyArtifactName.getExtension(), artifact.getExtension())
-            && matches(ivyArtifactName.getType(), artifact.getType());
+        return matches(groupMatcher, module.getGroup())
+            && matches(moduleMatcher, module.getName())
+            && matches(artifactNameMatcher, artifact.getName())
+            && matches(extensionMatcher, artifact.getExtension())
+            && matches(typeMatcher, artifact.getType());
     }
 
     @Override
@@ -73,14 +93,14 @@ public boolean mayExcludeArtifacts() {
         return isArtifactExclude;
     }
 
-    private boolean matches(String expression, String input) {
+    private static boolean matches(@Nullable Matcher expression, @Nullable String input) {
         if (expression == null && input == null) {
             return true;
         }
         if (expression == null || input == null) {
             return false;
         }
-        return matcher.getMatcher(expression).matches(input);
+        return expression.matches(input);
     }
 
     @Override
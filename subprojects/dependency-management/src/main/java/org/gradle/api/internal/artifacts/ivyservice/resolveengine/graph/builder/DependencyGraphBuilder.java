@@ -79,6 +79,10 @@
 
 public class DependencyGraphBuilder {
     private static final Logger LOGGER = LoggerFactory.getLogger(DependencyGraphBuilder.class);
+    /**
+     * When set, the metadata of dependencies is fetched as soon as they are discovered, while the graph is being traversed.
+     */
+    public static final String SPECULATIVE_METADATA_FETCHING = "org.gradle.internal.resolution.speculative-metadata-fetching";
     private final ModuleConflictHandler moduleConflictHandler;
     private final Spec<? super DependencyMetadata> edgeFilter;
     private final DependencyToComponentIdResolver idResolver;
@@ -140,10 +144,18 @@ public void resolve(final ResolveContext resolveContext, final DependencyGraphVi
         List<? extends DependencyMetadata> syntheticDependencies = includeSyntheticDependencies ?
             resolveContext.getSyntheticDependencies() : Collections.emptyList();
 
-        final ResolveState resolveState = new ResolveState(idGenerator, metadata, resolveContext.getName(), idResolver, metaDataResolver, edgeFilter, attributesSchema, moduleExclusions, componentSelectorConverter, attributesFactory, dependencySubstitutionApplicator, versionSelectorScheme, versionComparator, versionParser, moduleConflictHandler.getResolver(), graphSize, resolveContext.getResolutionStrategy().getConflictResolution(), syntheticDependencies, conflictTracker);
+        SpeculativeMetadataFetcher speculativeMetadataFetcher = Boolean.getBoolean(SPECULATIVE_METADATA_FETCHING)
+            ? new SpeculativeMetadataFetcher(metaDataResolver, buildOperationExecutor, versionSelectorScheme, edgeFilter)
+            : null;
+
+        final ResolveState resolveState = new ResolveState(idGenerator, metadata, resolveContext.getName(), idResolver, metaDataResolver, edgeFilter, attributesSchema, moduleExclusions, componentSelectorConverter, attributesFactory, dependencySubstitutionApplicator, versionSelectorScheme, versionComparator, versionParser, moduleConflictHandler.getResolver(), graphSize, resolveContext.getResolutionStrategy().getConflictResolution(), syntheticDependencies, conflictTracker, speculativeMetadataFetcher);
 
         Map<ModuleVersionIdentifier, ComponentIdentifier> componentIdentifierCache = Maps.newHashMapWithExpectedSize(graphSize / 2);
-        traverseGraph(resolveState, componentIdentifierCache);
+        if (speculativeMetadataFetcher != null) {
+            speculativeMetadataFetcher.fetchWhile(() -> traverseGraph(resolveState, componentIdentifierCache));
+        } else {
+            traverseGraph(resolveState, componentIdentifierCache);
+        }
 
         validateGraph(resolveState, resolutionStrategy.isFailingOnDynamicVersions(), resolutionStrategy.isFailingOnChangingVersions());
 
@@ -245,7 +257,7 @@ private boolean resolveEdges(final NodeState node,
             return false;
         }
         if (performSelectionSerially(dependencies, dependencyFilter, resolveState, recomputeSelectors)) {
-            maybeDownloadMetadataInParallel(node, componentIdentifierCache, dependencies, dependencyFilter);
+            maybeDownloadMetadataInParallel(node, resolveState.getMetaDataResolver(), componentIdentifierCache, dependencies, dependencyFilter);
             attachToTargetRevisionsSerially(dependencies, dependencyFilter);
             return true;
         } else {
@@ -319,7 +331,7 @@ private void checkForModuleConflicts(ResolveState resolveState, ModuleResolveSta
      * Prepares the resolution of edges, either serially or concurrently.
      * It uses a simple heuristic to determine if we should perform concurrent resolution, based on the number of edges, and whether they have unresolved metadata.
      */
-    private void maybeDownloadMetadataInParallel(NodeState node, Map<ModuleVersionIdentifier, ComponentIdentifier> componentIdentifierCache, List<EdgeState> dependencies, Spec<EdgeState> dependencyFilter) {
+    private void maybeDownloadMetadataInParallel(NodeState node, ComponentMetaDataResolver metaDataResolver, Map<ModuleVersionIdentifier, ComponentIdentifier> componentIdentifierCache, List<EdgeState> dependencies, Spec<EdgeState> dependencyFilter) {
         List<ComponentState> requiringDownload = null;
         for (EdgeState dependency : dependencies) {
             if (!dependencyFilter.isSatisfiedBy(dependency)) {
@@ -89,6 +89,7 @@ class ResolveState implements ComponentStateFactory<ComponentState> {
     private final Map<VersionConstraint, ResolvedVersionConstraint> resolvedVersionConstraints = Maps.newHashMap();
     private final AttributeDesugaring attributeDesugaring;
     private final ResolutionConflictTracker conflictTracker;
+    private final SpeculativeMetadataFetcher speculativeMetadataFetcher;
 
     public ResolveState(
         IdGenerator<Long> idGenerator,
@@ -109,11 +110,13 @@ public ResolveState(
         int graphSize,
         ConflictResolution conflictResolution,
         List<? extends DependencyMetadata> syntheticDependencies,
-        ResolutionConflictTracker conflictTracker
+        ResolutionConflictTracker conflictTracker,
+        @Nullable SpeculativeMetadataFetcher speculativeMetadataFetcher
     ) {
         this.idGenerator = idGenerator;
         this.idResolver = idResolver;
-        this.metaDataResolver = metaDataResolver;
+        this.speculativeMetadataFetcher = speculativeMetadataFetcher;
+        this.metaDataResolver = speculativeMetadataFetcher != null ? speculativeMetadataFetcher : metaDataResolver;
         this.edgeFilter = edgeFilter;
         this.attributesSchema = attributesSchema;
         this.moduleExclusions = moduleExclusions;
@@ -151,6 +154,10 @@ public ResolveState(
         nodes.put(rootNodeId, root);
     }
 
+    ComponentMetaDataResolver getMetaDataResolver() {
+        return metaDataResolver;
+    }
+
     public ResolutionConflictTracker getConflictTracker() {
         return conflictTracker;
     }
@@ -225,6 +232,9 @@ public void onMoreSelected(NodeState node) {
         // possible before attempting to resolve them
         if (node.enqueue()) {
             queue.addLast(node);
+            if (speculativeMetadataFetcher != null) {
+                speculativeMetadataFetcher.nodeQueued(node);
+            }
         }
     }
 
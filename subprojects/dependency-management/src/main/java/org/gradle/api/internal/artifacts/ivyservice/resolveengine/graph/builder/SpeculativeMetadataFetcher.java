@@ -0,0 +1,231 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.gradle.api.specs.Spec;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.model.ComponentOverrideMetadata;
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.operations.BuildOperationConstraint;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.gradle.internal.resolve.result.BuildableComponentResolveResult;
+import org.gradle.internal.resolve.result.DefaultBuildableComponentResolveResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link ComponentMetaDataResolver} which fetches the metadata of the dependencies of a node as soon as the node is queued for traversal,
+ * while the graph builder carries on with the nodes ahead of it in the queue.
+ *
+ * <p>Only dependencies on a fixed version of an external module, without any artifact or changing flag, are fetched speculatively.
+ * When the graph builder later resolves one of these components, it reuses the fetched metadata, waits for a fetch in progress,
+ * or resolves the component itself if the fetch has not started yet. Failed fetches are never reused, so failures are reported
+ * as they would be without speculative fetching.</p>
+ *
+ * <p>Speculative fetches may download metadata for components that do not end up in the graph, for example when a conflict
+ * selects another version, which is why this is only enabled on request.</p>
+ */
+class SpeculativeMetadataFetcher implements ComponentMetaDataResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpeculativeMetadataFetcher.class);
+
+    private final ComponentMetaDataResolver delegate;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final VersionSelectorScheme versionSelectorScheme;
+    private final Spec<? super DependencyMetadata> edgeFilter;
+    private final Map<ComponentIdentifier, Fetch> fetches = new ConcurrentHashMap<>();
+
+    // Only accessed from the thread traversing the graph
+    private BuildOperationQueue<FetchMetadataOperation> queue;
+
+    SpeculativeMetadataFetcher(ComponentMetaDataResolver delegate, BuildOperationExecutor buildOperationExecutor, VersionSelectorScheme versionSelectorScheme, Spec<? super DependencyMetadata> edgeFilter) {
+        this.delegate = delegate;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.versionSelectorScheme = versionSelectorScheme;
+        this.edgeFilter = edgeFilter;
+    }
+
+    /**
+     * Runs the given graph traversal, fetching metadata in the background until it completes.
+     * Fetches which have not started by the end of the traversal are discarded.
+     */
+    void fetchWhile(Runnable traversal) {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        buildOperationExecutor.runAll((BuildOperationQueue<FetchMetadataOperation> buildOperationQueue) -> {
+            queue = buildOperationQueue;
+            try {
+                traversal.run();
+            } catch (RuntimeException e) {
+                // Rethrown as is below, rather than reported as a failure to populate the queue
+                failure.set(e);
+            } finally {
+                queue = null;
+                buildOperationQueue.cancel();
+            }
+        }, BuildOperationConstraint.UNCONSTRAINED);
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Starts fetching the metadata of the dependencies of the given node, which has just been queued for traversal.
+     */
+    void nodeQueued(NodeState node) {
+        if (queue == null || !node.isTransitive()) {
+            return;
+        }
+        for (DependencyMetadata dependency : node.getMetadata().getDependencies()) {
+            ModuleComponentIdentifier id = fixedVersionTarget(dependency);
+            if (id == null || fetches.containsKey(id) || delegate.isFetchingMetadataCheap(id)) {
+                continue;
+            }
+            Fetch fetch = new Fetch(id);
+            if (fetches.putIfAbsent(id, fetch) == null) {
+                queue.add(new FetchMetadataOperation(fetch));
+            }
+        }
+    }
+
+    @Nullable
+    private ModuleComponentIdentifier fixedVersionTarget(DependencyMetadata dependency) {
+        if (dependency.isConstraint() || dependency.isChanging() || !dependency.getArtifacts().isEmpty() || !edgeFilter.isSatisfiedBy(dependency)) {
+            return null;
+        }
+        ComponentSelector selector = dependency.getSelector();
+        if (!(selector instanceof ModuleComponentSelector)) {
+            return null;
+        }
+        ModuleComponentSelector moduleSelector = (ModuleComponentSelector) selector;
+        String version = moduleSelector.getVersion();
+        if (version.isEmpty() || versionSelectorScheme.parseSelector(version).isDynamic()) {
+            return null;
+        }
+        return DefaultModuleComponentIdentifier.newId(moduleSelector.getModuleIdentifier(), version);
+    }
+
+    @Override
+    public void resolve(ComponentIdentifier identifier, ComponentOverrideMetadata componentOverrideMetadata, BuildableComponentResolveResult result) {
+        // Components are fetched without any override, so the fetched metadata can only be used when there is none
+        Fetch fetch = componentOverrideMetadata == DefaultComponentOverrideMetadata.EMPTY ? fetches.get(identifier) : null;
+        DefaultBuildableComponentResolveResult fetched = fetch == null ? null : fetch.takeResult();
+        if (fetched == null) {
+            delegate.resolve(identifier, componentOverrideMetadata, result);
+            return;
+        }
+        fetched.applyTo(result);
+        result.resolved(fetched.getState());
+    }
+
+    @Override
+    public boolean isFetchingMetadataCheap(ComponentIdentifier identifier) {
+        Fetch fetch = fetches.get(identifier);
+        return (fetch != null && fetch.isComplete()) || delegate.isFetchingMetadataCheap(identifier);
+    }
+
+    private class Fetch {
+        private final ModuleComponentIdentifier id;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile DefaultBuildableComponentResolveResult result;
+
+        Fetch(ModuleComponentIdentifier id) {
+            this.id = id;
+        }
+
+        void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                DefaultBuildableComponentResolveResult fetched = new DefaultBuildableComponentResolveResult();
+                delegate.resolve(id, DefaultComponentOverrideMetadata.EMPTY, fetched);
+                if (fetched.hasResult() && fetched.getFailure() == null) {
+                    result = fetched;
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Could not fetch metadata for {} ahead of time.", id, e);
+            } finally {
+                done.countDown();
+            }
+        }
+
+        boolean isComplete() {
+            return result != null;
+        }
+
+        /**
+         * Returns the fetched metadata, waiting for the fetch if it is in progress.
+         * Returns null when the fetch failed, or when it had not started, in which case it will not run anymore.
+         */
+        @Nullable
+        DefaultBuildableComponentResolveResult takeResult() {
+            if (started.compareAndSet(false, true)) {
+                // Not started yet, so resolve on the calling thread rather than waiting for a worker
+                done.countDown();
+                return null;
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return id.getDisplayName();
+        }
+    }
+
+    private static class FetchMetadataOperation implements RunnableBuildOperation {
+        private final Fetch fetch;
+
+        FetchMetadataOperation(Fetch fetch) {
+            this.fetch = fetch;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            fetch.run();
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Fetch metadata for " + fetch);
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.oldresult;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.internal.artifacts.DefaultResolvedDependency;
 import org.gradle.api.internal.artifacts.DependencyGraphNodeResult;
@@ -35,7 +37,6 @@
 import org.gradle.internal.time.Timer;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -128,7 +129,7 @@ public TransientConfigurationResults load(final ResolvedGraphResults graphResult
 
     private TransientConfigurationResults deserialize(Decoder decoder, ResolvedGraphResults graphResults, SelectedArtifactResults artifactResults, BuildOperationExecutor buildOperationProcessor) {
         Timer clock = Time.startTimer();
-        Map<Long, DefaultResolvedDependency> allDependencies = new HashMap<>();
+        Long2ObjectMap<DefaultResolvedDependency> allDependencies = new Long2ObjectOpenHashMap<>();
         Map<Dependency, DependencyGraphNodeResult> firstLevelDependencies = new LinkedHashMap<>();
         DependencyGraphNodeResult root;
         int valuesRead = 0;
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.gradle.api.artifacts.result.ResolvedVariantResult;
+import org.gradle.internal.service.scopes.Scopes;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+/**
+ * Shares equal {@link ResolvedVariantResult} instances between the resolution results of a build tree.
+ *
+ * <p>Sibling configurations usually select the same variants of the same components, and each resolution result
+ * is read back from its binary store into its own set of objects. Interning them means the results retained by
+ * the configurations of a large build only hold one copy of each variant, together with its attributes and capabilities.
+ * Instances are held weakly, so the interner itself does not retain any result.</p>
+ */
+@ServiceScope(Scopes.BuildTree.class)
+public class ResolvedVariantResultInterner {
+    private final Interner<ResolvedVariantResult> interner = Interners.newWeakInterner();
+
+    public ResolvedVariantResult intern(ResolvedVariantResult variant) {
+        return interner.intern(variant);
+    }
+}
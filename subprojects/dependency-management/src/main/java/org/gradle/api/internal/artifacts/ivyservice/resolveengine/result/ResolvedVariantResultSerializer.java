@@ -28,6 +28,7 @@
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.Serializer;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.IOException;
 import java.util.List;
@@ -44,11 +45,20 @@ public class ResolvedVariantResultSerializer implements Serializer<ResolvedVaria
     private final ComponentIdentifierSerializer componentIdentifierSerializer;
     private final AttributeContainerSerializer attributeContainerSerializer;
     private final CapabilitySerializer capabilitySerializer;
+    private final ResolvedVariantResultInterner interner;
 
     public ResolvedVariantResultSerializer(ComponentIdentifierSerializer componentIdentifierSerializer, AttributeContainerSerializer attributeContainerSerializer) {
+        this(componentIdentifierSerializer, attributeContainerSerializer, null);
+    }
+
+    /**
+     * @param interner - when not null, shares the variants that are read with equal variants read by other serializers.
+     */
+    public ResolvedVariantResultSerializer(ComponentIdentifierSerializer componentIdentifierSerializer, AttributeContainerSerializer attributeContainerSerializer, @Nullable ResolvedVariantResultInterner interner) {
         this.componentIdentifierSerializer = componentIdentifierSerializer;
         this.attributeContainerSerializer = attributeContainerSerializer;
         this.capabilitySerializer = new CapabilitySerializer();
+        this.interner = interner;
     }
 
     @Override
@@ -64,7 +74,10 @@ public ResolvedVariantResult read(Decoder decoder) throws IOException {
             List<Capability> capabilities = readCapabilities(decoder);
             read.add(null);
             ResolvedVariantResult externalVariant = read(decoder);
-            DefaultResolvedVariantResult result = new DefaultResolvedVariantResult(owner, Describables.of(variantName), attributes, capabilities, externalVariant);
+            ResolvedVariantResult result = new DefaultResolvedVariantResult(owner, Describables.of(variantName), attributes, capabilities, externalVariant);
+            if (interner != null) {
+                result = interner.intern(result);
+            }
             this.read.set(index, result);
             return result;
         }
@@ -17,6 +17,8 @@
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result;
 
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import org.gradle.api.artifacts.UnresolvedDependency;
 import org.gradle.api.artifacts.component.ComponentSelector;
 import org.gradle.api.artifacts.result.ResolutionResult;
@@ -46,7 +48,6 @@
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,7 +67,7 @@ public class StreamingResolutionResultBuilder implements DependencyGraphVisitor
     private final Store<ResolvedComponentResult> cache;
     private final ComponentSelectorSerializer componentSelectorSerializer;
     private final DependencyResultSerializer dependencyResultSerializer;
-    private final Set<Long> visitedComponents = new HashSet<>();
+    private final LongSet visitedComponents = new LongOpenHashSet();
     private final AttributeContainerSerializer attributeContainerSerializer;
     private final AttributeDesugaring desugaring;
 
@@ -79,9 +80,10 @@ public StreamingResolutionResultBuilder(BinaryStore store,
                                             AttributeContainerSerializer attributeContainerSerializer,
                                             AttributeDesugaring desugaring,
                                             ComponentSelectionDescriptorFactory componentSelectionDescriptorFactory,
+                                            ResolvedVariantResultInterner variantInterner,
                                             boolean returnAllVariants) {
         ComponentIdentifierSerializer componentIdentifierSerializer = new ComponentIdentifierSerializer();
-        ResolvedVariantResultSerializer resolvedVariantResultSerializer = new ResolvedVariantResultSerializer(componentIdentifierSerializer, attributeContainerSerializer);
+        ResolvedVariantResultSerializer resolvedVariantResultSerializer = new ResolvedVariantResultSerializer(componentIdentifierSerializer, attributeContainerSerializer, variantInterner);
         this.dependencyResultSerializer = new DependencyResultSerializer(resolvedVariantResultSerializer, componentSelectionDescriptorFactory);
         this.componentResultSerializer = new ComponentResultSerializer(moduleIdentifierFactory, resolvedVariantResultSerializer, componentSelectionDescriptorFactory, componentIdentifierSerializer, returnAllVariants);
         this.store = store;
@@ -115,7 +117,7 @@ public void finish(final DependencyGraphNode root) {
     @Override
     public void visitNode(DependencyGraphNode node) {
         final DependencyGraphComponent component = node.getOwner();
-        if (visitedComponents.add(component.getResultId())) {
+        if (visitedComponents.add(component.getResultId().longValue())) {
             store.write(encoder -> {
                 encoder.writeByte(COMPONENT);
                 componentResultSerializer.write(encoder, component);
@@ -59,6 +59,7 @@
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.ProviderFactory;
+import org.gradle.authentication.Authentication;
 import org.gradle.internal.action.InstantiatingAction;
 import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier;
 import org.gradle.internal.component.external.model.ModuleComponentArtifactMetadata;
@@ -70,6 +71,7 @@
 import org.gradle.internal.resource.local.FileResourceRepository;
 import org.gradle.internal.resource.local.FileStore;
 import org.gradle.internal.resource.local.LocallyAvailableResourceFinder;
+import org.gradle.internal.verifier.HttpRedirectVerifier;
 
 import javax.annotation.Nullable;
 import java.net.URI;
@@ -88,6 +90,7 @@ public class DefaultIvyArtifactRepository extends AbstractAuthenticationSupporte
     private final AdditionalPatternsRepositoryLayout additionalPatternsLayout;
     private final FileResolver fileResolver;
     private final RepositoryTransportFactory transportFactory;
+    private final RepositoryTransportCache transportCache = new RepositoryTransportCache();
     private final LocallyAvailableResourceFinder<ModuleComponentArtifactMetadata> locallyAvailableResourceFinder;
     private final MetaDataProvider metaDataProvider;
     private final Instantiator instantiator;
@@ -211,7 +214,9 @@ private IvyResolver createRealResolver() {
     }
 
     private IvyResolver createResolver(Set<String> schemes) {
-        return createResolver(transportFactory.createTransport(schemes, getName(), getConfiguredAuthentication(), urlArtifactRepository.createRedirectVerifier()));
+        Collection<Authentication> authentications = getConfiguredAuthentication();
+        HttpRedirectVerifier redirectVerifier = urlArtifactRepository.createRedirectVerifier();
+        return createResolver(transportCache.get(ImmutableSet.copyOf(schemes), getName(), urlArtifactRepository, authentications, () -> transportFactory.createTransport(schemes, getName(), authentications, redirectVerifier)));
     }
 
     private void validate(Set<String> schemes) {
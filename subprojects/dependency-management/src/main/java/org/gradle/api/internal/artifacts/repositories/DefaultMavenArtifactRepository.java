@@ -53,6 +53,7 @@
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.ProviderFactory;
+import org.gradle.authentication.Authentication;
 import org.gradle.internal.Cast;
 import org.gradle.internal.action.InstantiatingAction;
 import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier;
@@ -71,6 +72,7 @@
 import org.gradle.internal.resource.local.FileResourceRepository;
 import org.gradle.internal.resource.local.FileStore;
 import org.gradle.internal.resource.local.LocallyAvailableResourceFinder;
+import org.gradle.internal.verifier.HttpRedirectVerifier;
 
 import javax.annotation.Nonnull;
 import java.net.URI;
@@ -87,6 +89,7 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
     private final FileResolver fileResolver;
     private final RepositoryTransportFactory transportFactory;
     private final DefaultUrlArtifactRepository urlArtifactRepository;
+    private final RepositoryTransportCache transportCache = new RepositoryTransportCache();
     private List<Object> additionalUrls = new ArrayList<>();
     private final LocallyAvailableResourceFinder<ModuleComponentArtifactMetadata> locallyAvailableResourceFinder;
     private final FileStore<ModuleComponentArtifactIdentifier> artifactFileStore;
@@ -338,7 +341,9 @@ FileStore<String> getResourcesFileStore() {
     }
 
     public RepositoryTransport getTransport(String scheme) {
-        return transportFactory.createTransport(scheme, getName(), getConfiguredAuthentication(), urlArtifactRepository.createRedirectVerifier());
+        Collection<Authentication> authentications = getConfiguredAuthentication();
+        HttpRedirectVerifier redirectVerifier = urlArtifactRepository.createRedirectVerifier();
+        return transportCache.get(scheme, getName(), urlArtifactRepository, authentications, () -> transportFactory.createTransport(scheme, getName(), authentications, redirectVerifier));
     }
 
     protected LocallyAvailableResourceFinder<ModuleComponentArtifactMetadata> getLocallyAvailableResourceFinder() {
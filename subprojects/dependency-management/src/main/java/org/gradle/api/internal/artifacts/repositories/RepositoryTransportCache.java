@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.repositories;
+
+import org.gradle.api.artifacts.repositories.UrlArtifactRepository;
+import org.gradle.api.internal.artifacts.repositories.transport.RepositoryTransport;
+import org.gradle.authentication.Authentication;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reuses the transport of a repository between the resolutions of a build, for as long as the repository is not reconfigured.
+ * The connections opened by the transport are pooled, so each resolution does not need to connect to the repository again.
+ *
+ * <p>Transports are only reused for repositories without authentication, as credentials may change between resolutions.</p>
+ */
+class RepositoryTransportCache {
+    private List<Object> key;
+    private RepositoryTransport transport;
+
+    synchronized RepositoryTransport get(Object schemes, String name, UrlArtifactRepository urlArtifactRepository, Collection<Authentication> authentications, Supplier<RepositoryTransport> factory) {
+        if (!authentications.isEmpty()) {
+            return factory.get();
+        }
+        List<Object> key = Arrays.asList(schemes, name, urlArtifactRepository.getUrl(), urlArtifactRepository.isAllowInsecureProtocol());
+        if (transport == null || !key.equals(this.key)) {
+            transport = factory.get();
+            this.key = key;
+        }
+        return transport;
+    }
+}
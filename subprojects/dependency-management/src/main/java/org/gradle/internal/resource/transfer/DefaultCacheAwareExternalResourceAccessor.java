@@ -61,8 +61,9 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
     private final ProducerGuard<ExternalResourceName> producerGuard;
     private final FileResourceRepository fileResourceRepository;
     private final ChecksumService checksumService;
+    private final ExternalResourceRevalidationStatistics revalidationStatistics;
 
-    public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, ArtifactCacheLockingAccessCoordinator cacheAccessCoordinator, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ChecksumService checksumService) {
+    public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, ArtifactCacheLockingAccessCoordinator cacheAccessCoordinator, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ChecksumService checksumService, ExternalResourceRevalidationStatistics revalidationStatistics) {
         this.delegate = delegate;
         this.cachedExternalResourceIndex = cachedExternalResourceIndex;
         this.timeProvider = timeProvider;
@@ -72,6 +73,7 @@ public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository dele
         this.producerGuard = producerGuard;
         this.fileResourceRepository = fileResourceRepository;
         this.checksumService = checksumService;
+        this.revalidationStatistics = revalidationStatistics;
     }
 
     @Nullable
@@ -97,6 +99,9 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
             // Get the metadata first to see if it's there
             final ExternalResourceMetaData remoteMetaData = delegate.resource(location, revalidate).getMetaData();
             if (remoteMetaData == null) {
+                if (cached != null) {
+                    revalidationStatistics.revalidated(false);
+                }
                 return null;
             }
 
@@ -106,6 +111,7 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
                     cached.getExternalResourceMetaData(),
                     () -> remoteMetaData
                 );
+                revalidationStatistics.revalidated(isUnchanged);
 
                 if (isUnchanged) {
                     LOGGER.info("Cached resource {} is up-to-date (lastModified: {}).", location, cached.getExternalLastModified());
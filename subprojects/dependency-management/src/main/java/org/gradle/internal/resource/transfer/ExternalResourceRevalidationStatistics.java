@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transfer;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.service.scopes.Scopes;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the revalidations of expired cached external resources, such as Maven metadata files listing the versions of a module
+ * or the descriptors of changing modules, and how many of them found the cached copy to be up-to-date.
+ *
+ * <p>An up-to-date resource is revalidated with a single request for its metadata, comparing its ETag, or its last modified date
+ * and content length, with the cached ones. Any other outcome downloads the resource again.</p>
+ */
+@ServiceScope(Scopes.Build.class)
+public class ExternalResourceRevalidationStatistics implements Closeable {
+    private static final Logger LOGGER = Logging.getLogger(ExternalResourceRevalidationStatistics.class);
+
+    private final AtomicInteger revalidatedCount = new AtomicInteger();
+    private final AtomicInteger unchangedCount = new AtomicInteger();
+
+    /**
+     * Records the revalidation of an expired cached resource, whose cached copy was up-to-date or not.
+     */
+    public void revalidated(boolean unchanged) {
+        revalidatedCount.incrementAndGet();
+        if (unchanged) {
+            unchangedCount.incrementAndGet();
+        }
+    }
+
+    public int getRevalidatedCount() {
+        return revalidatedCount.get();
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (revalidatedCount.get() > 0) {
+            LOGGER.info("{} of {} revalidated cached external resources were up-to-date.", unchangedCount.get(), revalidatedCount.get());
+        }
+    }
+}
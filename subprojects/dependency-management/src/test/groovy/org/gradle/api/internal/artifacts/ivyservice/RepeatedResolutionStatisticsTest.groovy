@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice
+
+import org.gradle.api.artifacts.Dependency
+import org.gradle.api.artifacts.DependencyConstraintSet
+import org.gradle.api.artifacts.DependencySet
+import org.gradle.api.artifacts.ExternalModuleDependency
+import org.gradle.api.artifacts.ProjectDependency
+import org.gradle.api.internal.artifacts.ComponentSelectionRulesInternal
+import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal
+import org.gradle.api.internal.artifacts.configurations.ConflictResolution
+import org.gradle.api.internal.artifacts.configurations.ResolutionStrategyInternal
+import org.gradle.api.internal.artifacts.dependencies.DefaultMutableVersionConstraint
+import org.gradle.api.internal.attributes.AttributeContainerInternal
+import org.gradle.api.internal.attributes.ImmutableAttributes
+import org.gradle.internal.Actions
+import spock.lang.Specification
+
+class RepeatedResolutionStatisticsTest extends Specification {
+
+    def statistics = new RepeatedResolutionStatistics(true)
+
+    def "counts resolutions of identical external dependencies as repeated"() {
+        when:
+        statistics.resolved(configuration(external("org", "lib", "1.0")), [], 10)
+        statistics.resolved(configuration(external("org", "lib", "1.0")), [], 10)
+        statistics.resolved(configuration(external("org", "lib", "2.0")), [], 10)
+
+        then:
+        statistics.resolutionCount == 3
+        statistics.repeatedCount == 1
+    }
+
+    def "records nothing when disabled"() {
+        given:
+        def statistics = new RepeatedResolutionStatistics(false)
+        def dependency = Mock(ExternalModuleDependency)
+
+        when:
+        statistics.resolved(configuration(dependency), [], 10)
+        statistics.resolved(configuration(dependency), [], 10)
+
+        then:
+        0 * dependency._
+        statistics.resolutionCount == 0
+        statistics.repeatedCount == 0
+    }
+
+    def "does not count resolutions of project dependencies as repeated"() {
+        when:
+        statistics.resolved(configuration(Stub(ProjectDependency)), [], 10)
+        statistics.resolved(configuration(Stub(ProjectDependency)), [], 10)
+
+        then:
+        statistics.resolutionCount == 2
+        statistics.repeatedCount == 0
+    }
+
+    def "does not count resolutions with dependency locking as repeated"() {
+        when:
+        statistics.resolved(configuration(external("org", "lib", "1.0"), true), [], 10)
+        statistics.resolved(configuration(external("org", "lib", "1.0"), true), [], 10)
+
+        then:
+        statistics.repeatedCount == 0
+    }
+
+    private ExternalModuleDependency external(String group, String name, String version) {
+        return Stub(ExternalModuleDependency) {
+            getGroup() >> group
+            getName() >> name
+            getVersionConstraint() >> new DefaultMutableVersionConstraint(version)
+            getAttributes() >> ImmutableAttributes.EMPTY
+            isTransitive() >> true
+        }
+    }
+
+    private ConfigurationInternal configuration(Dependency dependency, boolean locking = false) {
+        def resolutionStrategy = Stub(ResolutionStrategyInternal) {
+            isDependencyLockingEnabled() >> locking
+            getDependencySubstitutionRule() >> Actions.doNothing()
+            getComponentSelection() >> Stub(ComponentSelectionRulesInternal) {
+                getRules() >> []
+            }
+            getConflictResolution() >> ConflictResolution.latest
+        }
+        def dependencies = Stub(DependencySet) {
+            iterator() >> { [dependency].iterator() }
+        }
+        def constraints = Stub(DependencyConstraintSet) {
+            iterator() >> { [].iterator() }
+        }
+        return Stub(ConfigurationInternal) {
+            getResolutionStrategy() >> resolutionStrategy
+            getAttributes() >> Stub(AttributeContainerInternal) {
+                asImmutable() >> ImmutableAttributes.EMPTY
+            }
+            getAllDependencies() >> dependencies
+            getAllDependencyConstraints() >> constraints
+        }
+    }
+}
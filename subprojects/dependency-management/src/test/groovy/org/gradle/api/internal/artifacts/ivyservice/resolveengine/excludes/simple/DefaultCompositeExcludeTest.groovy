@@ -61,6 +61,25 @@ class DefaultCompositeExcludeTest extends Specification {
         true
     }
 
+    def "memoized evaluation of composite specs matches evaluation of their components"() {
+        def moduleIds = GROUPS.collectMany { group -> MODULES.collect { module -> DefaultModuleIdentifier.newId(group, module) } }
+
+        expect:
+        (5_000).times {
+            ExcludeSpec spec = next()
+            if (spec instanceof DefaultCompositeExclude) {
+                moduleIds.each { moduleId ->
+                    boolean expected = spec instanceof DefaultExcludeAnyOf
+                        ? spec.components.any { it.excludes(moduleId) }
+                        : spec.components.every { it.excludes(moduleId) }
+                    assert spec.excludes(moduleId) == expected
+                    assert spec.excludes(moduleId) == expected
+                }
+            }
+        }
+        true
+    }
+
     ExcludeSpec cache(ExcludeSpec spec) {
         if (cached.add(spec)) {
             cachedLinear << spec
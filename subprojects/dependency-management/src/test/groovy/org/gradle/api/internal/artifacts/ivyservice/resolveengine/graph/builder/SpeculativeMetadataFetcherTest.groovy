@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser
+import org.gradle.api.specs.Specs
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
+import org.gradle.internal.component.model.ComponentGraphResolveState
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata
+import org.gradle.internal.component.model.DependencyMetadata
+import org.gradle.internal.component.model.VariantGraphResolveMetadata
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resolve.ModuleVersionResolveException
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver
+import org.gradle.internal.resolve.result.DefaultBuildableComponentResolveResult
+import spock.lang.Specification
+
+import static org.gradle.internal.component.model.DefaultComponentOverrideMetadata.EMPTY
+
+class SpeculativeMetadataFetcherTest extends Specification {
+    def delegate = Mock(ComponentMetaDataResolver)
+    def versionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser())
+    def fetcher = new SpeculativeMetadataFetcher(delegate, new TestBuildOperationExecutor(), versionSelectorScheme, Specs.satisfyAll())
+    def id = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", "a"), "1.0")
+    def state = Stub(ComponentGraphResolveState)
+
+    def setup() {
+        delegate.isFetchingMetadataCheap(_) >> false
+    }
+
+    def "reuses metadata fetched for dependencies of a queued node"() {
+        def result = new DefaultBuildableComponentResolveResult()
+
+        when:
+        fetcher.fetchWhile {
+            fetcher.nodeQueued(node(dependency("a", "1.0"), dependency("b", "[1.0,2.0)")))
+            fetcher.resolve(id, EMPTY, result)
+        }
+
+        then:
+        1 * delegate.resolve(id, EMPTY, _) >> { args -> args[2].resolved(state) }
+        0 * delegate.resolve(_, _, _)
+
+        and:
+        result.state == state
+    }
+
+    def "resolves again when fetching failed"() {
+        def result = new DefaultBuildableComponentResolveResult()
+
+        when:
+        fetcher.fetchWhile {
+            fetcher.nodeQueued(node(dependency("a", "1.0")))
+            fetcher.resolve(id, EMPTY, result)
+        }
+
+        then:
+        1 * delegate.resolve(id, EMPTY, _) >> { args -> args[2].failed(new ModuleVersionResolveException(id, new RuntimeException("broken"))) }
+        1 * delegate.resolve(id, EMPTY, _) >> { args -> args[2].resolved(state) }
+
+        and:
+        result.state == state
+    }
+
+    def "does not use fetched metadata when the component has override metadata"() {
+        def result = new DefaultBuildableComponentResolveResult()
+        def changing = DefaultComponentOverrideMetadata.forDependency(true, null, null)
+
+        when:
+        fetcher.fetchWhile {
+            fetcher.nodeQueued(node(dependency("a", "1.0")))
+            fetcher.resolve(id, changing, result)
+        }
+
+        then:
+        1 * delegate.resolve(id, EMPTY, _) >> { args -> args[2].resolved(Stub(ComponentGraphResolveState)) }
+        1 * delegate.resolve(id, changing, _) >> { args -> args[2].resolved(state) }
+
+        and:
+        result.state == state
+    }
+
+    def "does not fetch once the traversal has completed"() {
+        when:
+        fetcher.fetchWhile {}
+        fetcher.nodeQueued(node(dependency("a", "1.0")))
+
+        then:
+        0 * delegate.resolve(_, _, _)
+    }
+
+    private NodeState node(DependencyMetadata... dependencies) {
+        def metadata = Stub(VariantGraphResolveMetadata) {
+            getDependencies() >> (dependencies as List)
+        }
+        return Stub(NodeState) {
+            isTransitive() >> true
+            getMetadata() >> metadata
+        }
+    }
+
+    private DependencyMetadata dependency(String name, String version) {
+        return Stub(DependencyMetadata) {
+            getSelector() >> DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId("org", name), version)
+            getArtifacts() >> []
+        }
+    }
+}
@@ -23,7 +23,9 @@ import org.gradle.api.capabilities.Capability
 import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory
 import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
 import org.gradle.api.internal.artifacts.DependencyManagementTestUtil
+import org.gradle.api.internal.artifacts.result.DefaultResolvedVariantResult
 import org.gradle.api.internal.attributes.ImmutableAttributes
+import org.gradle.internal.Describables
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
 import org.gradle.internal.serialize.SerializerSpec
 import org.gradle.util.AttributeTestUtil
@@ -121,6 +123,39 @@ class ComponentResultSerializerTest extends SerializerSpec {
         result.repositoryName == 'repoName'
     }
 
+    def "shares equal variants read by serializers using the same interner"() {
+        def interner = new ResolvedVariantResultInterner()
+        def componentIdentifier = new DefaultModuleComponentIdentifier(DefaultModuleIdentifier.newId('group', 'module'), 'version')
+        def variant = new DefaultResolvedVariantResult(componentIdentifier, Describables.of("v1"), ImmutableAttributes.EMPTY, [], null)
+        def selection = new DetachedComponentResult(12L,
+            newId('org', 'foo', '2.0'),
+            ComponentSelectionReasons.requested(),
+            componentIdentifier, [variant], [variant],
+            'repoName')
+
+        when:
+        def first = serialize(selection, serializerWith(interner))
+        def second = serialize(selection, serializerWith(interner))
+
+        then:
+        first.resolvedVariants[0] == variant
+        first.resolvedVariants[0].is(second.resolvedVariants[0])
+    }
+
+    private ComponentResultSerializer serializerWith(ResolvedVariantResultInterner interner) {
+        new ComponentResultSerializer(
+            new DefaultImmutableModuleIdentifierFactory(),
+            new ResolvedVariantResultSerializer(
+                componentIdentifierSerializer,
+                new DesugaredAttributeContainerSerializer(AttributeTestUtil.attributesFactory(), TestUtil.objectInstantiator()),
+                interner
+            ),
+            DependencyManagementTestUtil.componentSelectionDescriptorFactory(),
+            componentIdentifierSerializer,
+            false
+        )
+    }
+
     private Capability capability(String name) {
         Mock(Capability) {
             getGroup() >> 'org'
@@ -55,6 +55,7 @@ class StreamingResolutionResultBuilderTest extends Specification {
         new DesugaredAttributeContainerSerializer(AttributeTestUtil.attributesFactory(), TestUtil.objectInstantiator()),
         new AttributeDesugaring(AttributeTestUtil.attributesFactory()),
         DependencyManagementTestUtil.componentSelectionDescriptorFactory(),
+        new ResolvedVariantResultInterner(),
         false
     )
 
@@ -101,6 +101,33 @@ class DefaultMavenArtifactRepositoryTest extends Specification {
         repo.root == uri
     }
 
+    def "reuses transport between resolvers until repository is reconfigured"() {
+        given:
+        def uri = new URI("https://localhost:9090/repo")
+        def otherUri = new URI("https://localhost:9090/other")
+        _ * resolver.resolveUri('repo-dir') >> uri
+        _ * resolver.resolveUri('other-dir') >> otherUri
+        authenticationContainer.isEmpty() >> true
+
+        and:
+        repository.name = 'repo'
+        repository.url = 'repo-dir'
+
+        when:
+        repository.createResolver()
+        repository.createResolver()
+
+        then:
+        1 * transportFactory.createTransport('https', 'repo', _, _) >> transport()
+
+        when:
+        repository.url = 'other-dir'
+        repository.createResolver()
+
+        then:
+        1 * transportFactory.createTransport('https', 'repo', _, _) >> transport()
+    }
+
     def "creates repository with additional artifact URLs"() {
         given:
         def uri = new URI("https://localhost:9090/repo")
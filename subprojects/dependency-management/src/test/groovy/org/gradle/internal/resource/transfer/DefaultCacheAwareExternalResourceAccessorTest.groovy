@@ -62,7 +62,8 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
             supplier.get()
         }
     }
-    final cache = new DefaultCacheAwareExternalResourceAccessor(repository, index, timeProvider, temporaryFileProvider, cacheAccessCoordinator, cachePolicy, producerGuard, fileRepository, TestUtil.checksumService)
+    final revalidationStatistics = new ExternalResourceRevalidationStatistics()
+    final cache = new DefaultCacheAwareExternalResourceAccessor(repository, index, timeProvider, temporaryFileProvider, cacheAccessCoordinator, cachePolicy, producerGuard, fileRepository, TestUtil.checksumService, revalidationStatistics)
 
     def "returns null when the request resource is not cached and does not exist in the remote repository"() {
         def location = new ExternalResourceName("thing")
@@ -159,6 +160,9 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         _ * cachedResource.externalResourceMetaData >> metaData
         1 * fileRepository.resource(cachedFile, location.uri, metaData) >> resultResource
         0 * _._
+
+        and:
+        revalidationStatistics.revalidatedCount == 0
     }
 
     def "will use sha1 from metadata for finding candidates if available"() {
@@ -205,6 +209,10 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         1 * index.store("thing", cachedFile, remoteMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, remoteMetaData) >> resultResource
         0 * _._
+
+        and:
+        revalidationStatistics.revalidatedCount == 1
+        revalidationStatistics.unchangedCount == 0
     }
 
     def "reuses cached resource if ETag matches"() {
@@ -247,6 +255,10 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         1 * index.store("thing", cachedFile, cachedMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, cachedMetaData) >> resultResource
         0 * _._
+
+        and:
+        revalidationStatistics.revalidatedCount == 1
+        revalidationStatistics.unchangedCount == 1
     }
 
     def "will download sha1 for finding candidates if not available in meta-data"() {
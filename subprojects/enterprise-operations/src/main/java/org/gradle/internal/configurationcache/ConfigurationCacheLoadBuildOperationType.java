@@ -29,6 +29,13 @@ public interface Details {
     }
 
     public interface Result {
+
+        /**
+         * An upper bound of the highest heap usage reached while loading the configuration cache state, in bytes.
+         *
+         * @since 8.2
+         */
+        long getHeapHighWaterMark();
     }
 
 }
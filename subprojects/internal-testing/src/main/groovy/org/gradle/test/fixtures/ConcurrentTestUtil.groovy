@@ -122,6 +122,11 @@ class ConcurrentTestUtil extends ExternalResource {
                 throw new UnsupportedOperationException()
             }
 
+            @Override
+            ManagedExecutor createIoExecutor(String displayName, int maxConcurrency) {
+                throw new UnsupportedOperationException()
+            }
+
             @Override
             ManagedScheduledExecutor createScheduled(String displayName, int fixedSize) {
                 throw new UnsupportedOperationException()
@@ -46,6 +46,11 @@ class TestExecutorFactory implements ExecutorFactory {
         throw new UnsupportedOperationException()
     }
 
+    @Override
+    ManagedExecutor createIoExecutor(String displayName, int maxConcurrency) {
+        throw new UnsupportedOperationException()
+    }
+
     @Override
     ManagedScheduledExecutor createScheduled(String displayName, int fixedSize) {
         throw new UnsupportedOperationException()
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.experiment.java
+
+import org.gradle.initialization.StartParameterBuildOptions.IsolatedProjectsOption
+import org.gradle.performance.AbstractCrossBuildPerformanceTest
+import org.gradle.performance.annotations.RunFor
+import org.gradle.performance.annotations.Scenario
+import org.gradle.performance.fixture.GradleBuildExperimentSpec
+import org.gradle.performance.fixture.ToolingApiAction
+import org.gradle.profiler.BuildContext
+import org.gradle.profiler.BuildMutator
+import org.gradle.profiler.InvocationSettings
+import org.gradle.profiler.ScenarioContext
+import org.gradle.tooling.BuildAction
+import org.gradle.tooling.BuildActionExecuter
+import org.gradle.tooling.BuildController
+import org.gradle.tooling.model.gradle.BasicGradleProject
+import org.gradle.tooling.model.gradle.BuildInvocations
+
+import static org.gradle.performance.annotations.ScenarioType.PER_WEEK
+import static org.gradle.performance.results.OperatingSystem.LINUX
+
+/**
+ * Measures the time of an IDE sync after the build script of a single project has changed.
+ *
+ * The sync fetches a model for each project, as IDEs do. With isolated projects, only the models of the invalidated projects are
+ * built again, and the models of the other projects are restored from the configuration cache. Without isolated projects, no model is reused.
+ */
+@RunFor(
+    @Scenario(type = PER_WEEK, operatingSystems = [LINUX], testProjects = ["largeJavaMultiProjectNoBuildSrc"])
+)
+class ConfigurationCacheProjectInvalidationPerformanceTest extends AbstractCrossBuildPerformanceTest {
+
+    def "reconfigure after build script change in one project"() {
+        given:
+        runner.testGroup = "configuration cache"
+        runner.buildSpec {
+            displayName("project scoped model reuse")
+            invocation {
+                args("-D${IsolatedProjectsOption.PROPERTY_NAME}=true")
+            }
+        }
+        runner.baseline {
+            displayName("no model reuse")
+        }
+
+        when:
+        def results = runner.run()
+
+        then:
+        results
+    }
+
+    @Override
+    protected void defaultSpec(GradleBuildExperimentSpec.GradleBuilder builder) {
+        super.defaultSpec(builder)
+        builder.warmUpCount = 5
+        builder.invocationCount = 20
+        builder.addBuildMutator { InvocationSettings invocationSettings -> new ChangeBuildScriptMutator(new File(invocationSettings.projectDir, "project0/build.gradle")) }
+        builder.invocation {
+            useToolingApi()
+            buildAction(fetchModelForEachProject())
+            args("--configuration-cache", "--configuration-cache-problems=warn")
+        }
+    }
+
+    private static ToolingApiAction<BuildActionExecuter<Integer>> fetchModelForEachProject() {
+        def action = new ToolingApiAction<BuildActionExecuter<Integer>>("Fetch a model for each project", { connection ->
+            connection.action(new FetchBuildInvocationsForEachProject())
+        })
+        action.run { executer -> executer.run() }
+        return action
+    }
+
+    private static class FetchBuildInvocationsForEachProject implements BuildAction<Integer> {
+        @Override
+        Integer execute(BuildController controller) {
+            int taskCount = 0
+            for (BasicGradleProject project : controller.buildModel.projects) {
+                taskCount += controller.getModel(project, BuildInvocations).tasks.size()
+            }
+            return taskCount
+        }
+    }
+
+    private static class ChangeBuildScriptMutator implements BuildMutator {
+        private final File buildScript
+        private String originalText
+
+        ChangeBuildScriptMutator(File buildScript) {
+            this.buildScript = buildScript
+        }
+
+        @Override
+        void beforeScenario(ScenarioContext context) {
+            originalText = buildScript.text
+        }
+
+        @Override
+        void beforeBuild(BuildContext context) {
+            buildScript.text = originalText + "\n// change ${System.nanoTime()}\n"
+        }
+
+        @Override
+        void afterScenario(ScenarioContext context) {
+            buildScript.text = originalText
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.experiment.java
+
+import org.gradle.performance.AbstractCrossBuildPerformanceTest
+import org.gradle.performance.annotations.RunFor
+import org.gradle.performance.annotations.Scenario
+import org.gradle.performance.fixture.GradleBuildExperimentSpec
+import org.gradle.profiler.InvocationSettings
+
+import static org.gradle.performance.annotations.ScenarioType.PER_WEEK
+import static org.gradle.performance.regression.java.JavaConfigurationCachePerformanceTest.configurationCacheInvocationListenerFor
+import static org.gradle.performance.regression.java.JavaConfigurationCachePerformanceTest.loading
+import static org.gradle.performance.regression.java.JavaConfigurationCachePerformanceTest.storing
+import static org.gradle.performance.results.OperatingSystem.LINUX
+
+@RunFor(
+    @Scenario(type = PER_WEEK, operatingSystems = [LINUX], testProjects = ["mediumJavaCompositeBuild", "mediumJavaPredefinedCompositeBuild"])
+)
+class ParallelConfigurationCacheNestedBuildStatePerformanceTest extends AbstractCrossBuildPerformanceTest {
+
+    def "assemble #action configuration cache state with parallel nested builds"() {
+        given:
+        runner.testGroup = "configuration cache"
+        runner.buildSpec {
+            displayName("parallel nested builds $action")
+            configurationCacheAction(it, action)
+            invocation {
+                args("-Dorg.gradle.configuration-cache.internal.parallel-nested-build-state=true")
+            }
+        }
+        runner.baseline {
+            displayName("serial nested builds $action")
+            configurationCacheAction(it, action)
+        }
+
+        when:
+        def results = runner.run()
+
+        then:
+        results
+
+        where:
+        action << [loading, storing]
+    }
+
+    private static void configurationCacheAction(GradleBuildExperimentSpec.GradleBuilder builder, String action) {
+        builder.addBuildMutator { InvocationSettings invocationSettings ->
+            configurationCacheInvocationListenerFor(invocationSettings, action, new File(invocationSettings.projectDir, ".gradle/configuration-cache"))
+        }
+    }
+
+    @Override
+    protected void defaultSpec(GradleBuildExperimentSpec.GradleBuilder builder) {
+        super.defaultSpec(builder)
+        builder.warmUpCount = 5
+        builder.invocationCount = 20
+        builder.invocation {
+            tasksToRun("assemble")
+            args("--configuration-cache")
+        }
+    }
+}
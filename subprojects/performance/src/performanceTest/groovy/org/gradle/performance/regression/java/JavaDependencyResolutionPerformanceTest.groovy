@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.regression.java
+
+import org.gradle.performance.AbstractCrossVersionPerformanceTest
+import org.gradle.performance.annotations.RunFor
+import org.gradle.performance.annotations.Scenario
+
+import static org.gradle.performance.annotations.ScenarioType.PER_DAY
+import static org.gradle.performance.results.OperatingSystem.LINUX
+
+@RunFor(
+    @Scenario(type = PER_DAY, operatingSystems = [LINUX], testProjects = ["largeJavaMultiProject"])
+)
+class JavaDependencyResolutionPerformanceTest extends AbstractCrossVersionPerformanceTest {
+
+    def "resolve all classpaths"() {
+        given:
+        // Resolves the classpaths of every project in a single build, so that the resolution results
+        // of all of them are retained by the daemon heap at the same time, as in a full build
+        def initScript = temporaryFolder.file("resolve-all-classpaths.gradle")
+        initScript << """
+            allprojects {
+                tasks.register("resolveAllClasspaths") {
+                    doLast {
+                        ["compileClasspath", "runtimeClasspath", "testCompileClasspath", "testRuntimeClasspath"].each { name ->
+                            def configuration = configurations.findByName(name)
+                            if (configuration != null) {
+                                configuration.files.size()
+                                configuration.resolvedConfiguration.resolvedArtifacts.size()
+                            }
+                        }
+                    }
+                }
+            }
+        """.stripIndent()
+        runner.tasksToRun = ["resolveAllClasspaths"]
+        runner.args = ["-I", initScript.absolutePath]
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+    }
+}